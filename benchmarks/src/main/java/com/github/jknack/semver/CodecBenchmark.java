@@ -0,0 +1,108 @@
+/**
+ * Copyright (c) 2013 Edgar Espina
+ *
+ * This file is part of amd4j (https://github.com/jknack/amd4j)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jknack.semver;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link VersionCodec} encoding, decoding and comparing encoded versions.
+ *
+ * @author edgar.espina
+ * @since 0.1.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CodecBenchmark {
+
+  /**
+   * The version to encode.
+   */
+  @Param({"1.2.3", "1.2.3-beta.2+build.11" })
+  public String version;
+
+  /**
+   * The parsed version.
+   */
+  private Semver semver;
+
+  /**
+   * The encoded version.
+   */
+  private byte[] bytes;
+
+  /**
+   * The encoded version of a slightly greater version.
+   */
+  private byte[] next;
+
+  /**
+   * Encode the versions.
+   */
+  @Setup
+  public void setup() {
+    semver = Semver.create(version);
+    bytes = VersionCodec.encode(semver);
+    next = VersionCodec.encode(Semver.create(version + ".0"));
+  }
+
+  /**
+   * Encode a version.
+   *
+   * @return The encoded version.
+   */
+  @Benchmark
+  public byte[] encode() {
+    return VersionCodec.encode(semver);
+  }
+
+  /**
+   * Decode a version.
+   *
+   * @return The decoded version.
+   */
+  @Benchmark
+  public Semver decode() {
+    return VersionCodec.decode(bytes);
+  }
+
+  /**
+   * Compare two encoded versions.
+   *
+   * @return The comparison result.
+   */
+  @Benchmark
+  public int compare() {
+    return VersionCodec.compare(bytes, next);
+  }
+}
@@ -0,0 +1,123 @@
+/**
+ * Copyright (c) 2013 Edgar Espina
+ *
+ * This file is part of amd4j (https://github.com/jknack/amd4j)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jknack.semver;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Match throughput of a pre-parsed expression against a candidate version.
+ *
+ * @author edgar.espina
+ * @since 0.1.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MatchBenchmark {
+
+  /**
+   * The expression to match against.
+   */
+  @Param({
+      "1.2.5",
+      ">=1.2.3",
+      "~1.2.3",
+      "1.x",
+      "1.0.0 - 2.9999.9999",
+      ">=1.0.2 <2.1.2",
+      "<1.0.0 || >=2.3.1 <2.4.5 || >=2.5.2 <3.0.0",
+      "*"
+  })
+  public String expression;
+
+  /**
+   * The candidate version.
+   */
+  @Param({"1.2.5", "2.4.4-rc.1" })
+  public String candidate;
+
+  /**
+   * The parsed expression.
+   */
+  private Semver semver;
+
+  /**
+   * The compiled expression.
+   */
+  private Semver compiled;
+
+  /**
+   * The parsed candidate.
+   */
+  private Semver version;
+
+  /**
+   * Parse the expression and the candidate.
+   */
+  @Setup
+  public void setup() {
+    semver = Semver.create(expression);
+    compiled = semver.compile();
+    version = Semver.create(candidate);
+  }
+
+  /**
+   * Match a candidate string: parses the candidate on every call.
+   *
+   * @return True if the candidate matches.
+   */
+  @Benchmark
+  public boolean matchesString() {
+    return semver.matches(candidate);
+  }
+
+  /**
+   * Match a pre-parsed candidate.
+   *
+   * @return True if the candidate matches.
+   */
+  @Benchmark
+  public boolean matchesVersion() {
+    return semver.matches(version);
+  }
+
+  /**
+   * Match a pre-parsed candidate against the compiled expression.
+   *
+   * @return True if the candidate matches.
+   */
+  @Benchmark
+  public boolean matchesCompiled() {
+    return compiled.matches(version);
+  }
+}
@@ -0,0 +1,97 @@
+/**
+ * Copyright (c) 2013 Edgar Espina
+ *
+ * This file is part of amd4j (https://github.com/jknack/amd4j)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jknack.semver;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of the instrumentation callbacks: parse and match with {@link SemverMetrics#NOOP} versus a
+ * {@link RecordingSemverMetrics}.
+ *
+ * @author edgar.espina
+ * @since 0.1.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetricsBenchmark {
+
+  /**
+   * True to record metrics.
+   */
+  @Param({"false", "true" })
+  public boolean recording;
+
+  /**
+   * A range to match.
+   */
+  private Semver range;
+
+  /**
+   * Install the metrics.
+   */
+  @Setup
+  public void setup() {
+    Semver.setMetrics(recording ? new RecordingSemverMetrics() : null);
+    range = Semver.create(">=1.0.2 <2.1.2");
+  }
+
+  /**
+   * Go back to the default metrics.
+   */
+  @TearDown
+  public void tearDown() {
+    Semver.setMetrics(null);
+  }
+
+  /**
+   * Parse a version.
+   *
+   * @return The version.
+   */
+  @Benchmark
+  public Semver parse() {
+    return Semver.create("1.2.3");
+  }
+
+  /**
+   * Parse and match a version.
+   *
+   * @return True if the version matches.
+   */
+  @Benchmark
+  public boolean matches() {
+    return range.matches("1.2.3");
+  }
+}
@@ -0,0 +1,131 @@
+/**
+ * Copyright (c) 2013 Edgar Espina
+ *
+ * This file is part of amd4j (https://github.com/jknack/amd4j)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jknack.semver;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Parse throughput for every {@link Semver.Type} the parser produces.
+ *
+ * @author edgar.espina
+ * @since 0.1.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParseBenchmark {
+
+  /**
+   * The expression to parse. One per {@link Semver.Type}.
+   */
+  @Param({
+      "1.2.3",
+      "1.2.3-beta.2+build.11",
+      "=1.2.3",
+      ">1.2.3",
+      ">=1.2.3",
+      "<1.2.3",
+      "<=1.2.3",
+      "~1.2.3",
+      "1.2.x",
+      "1.0.0 - 2.9999.9999",
+      ">=1.0.2 <2.1.2",
+      "<1.0.0 || >=2.3.1 <2.4.5 || >=2.5.2 <3.0.0",
+      "http://asdf.com/asdf.tar.gz",
+      "git://github.com/user/project.git#commit-ish",
+      "*"
+  })
+  public String expression;
+
+  /**
+   * The expression as ASCII bytes.
+   */
+  private ByteBuffer bytes;
+
+  /**
+   * The expression as characters.
+   */
+  private char[] chars;
+
+  /**
+   * Encode the expression.
+   */
+  @Setup
+  public void setup() {
+    bytes = ByteBuffer.allocateDirect(expression.length());
+    bytes.put(expression.getBytes(StandardCharsets.US_ASCII)).flip();
+    chars = expression.toCharArray();
+  }
+
+  /**
+   * Run the parser directly.
+   *
+   * @return The parsed expression.
+   */
+  @Benchmark
+  public Semver parse() {
+    return new SemverParser(expression).parse();
+  }
+
+  /**
+   * Go through the public entry point.
+   *
+   * @return The parsed expression.
+   */
+  @Benchmark
+  public Semver create() {
+    return Semver.create(expression);
+  }
+
+  /**
+   * Parse a char array region.
+   *
+   * @return The parsed expression.
+   */
+  @Benchmark
+  public Semver createChars() {
+    return Semver.create(chars, 0, chars.length);
+  }
+
+  /**
+   * Parse a direct byte buffer in place.
+   *
+   * @return The parsed expression.
+   */
+  @Benchmark
+  public Semver createBuffer() {
+    return Semver.create(bytes);
+  }
+}
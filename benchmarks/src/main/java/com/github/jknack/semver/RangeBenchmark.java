@@ -0,0 +1,89 @@
+/**
+ * Copyright (c) 2013 Edgar Espina
+ *
+ * This file is part of amd4j (https://github.com/jknack/amd4j)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jknack.semver;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Match tilde and 'x' ranges against a pre-parsed version. Run with <code>-prof gc</code>: a
+ * match must not allocate.
+ *
+ * @author edgar.espina
+ * @since 0.1.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RangeBenchmark {
+
+  /**
+   * The range expression.
+   */
+  @Param({"~1.2.3", "~1.2", "1.x", "1.2.x" })
+  public String expression;
+
+  /**
+   * The candidate version, below, inside and above the range.
+   */
+  @Param({"1.1.0", "1.2.5", "2.0.0" })
+  public String candidate;
+
+  /**
+   * The parsed range.
+   */
+  private Semver range;
+
+  /**
+   * The parsed candidate.
+   */
+  private Semver version;
+
+  /**
+   * Parse the range and the candidate.
+   */
+  @Setup
+  public void setup() {
+    range = Semver.create(expression);
+    version = Semver.create(candidate);
+  }
+
+  /**
+   * Match the candidate.
+   *
+   * @return True if the candidate matches.
+   */
+  @Benchmark
+  public boolean matches() {
+    return range.matches(version);
+  }
+}
@@ -0,0 +1,133 @@
+/**
+ * Copyright (c) 2013 Edgar Espina
+ *
+ * This file is part of amd4j (https://github.com/jknack/amd4j)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jknack.semver;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.jknack.semver.resolver.Provider;
+import com.github.jknack.semver.resolver.Resolver;
+import com.github.jknack.semver.resolver.Solution;
+
+/**
+ * Resolve synthetic dependency graphs. Every package has a few versions, every version depends
+ * on packages further down the graph, and some of the newest versions depend on a version that
+ * doesn't exist, which forces conflict resolution.
+ *
+ * @author edgar.espina
+ * @since 0.1.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResolverBenchmark {
+
+  /**
+   * Number of packages.
+   */
+  @Param({"1000", "5000" })
+  public int packages;
+
+  /**
+   * The registry: versions and dependencies of each package.
+   */
+  private Map<String, Map<Semver, Map<String, Semver>>> registry;
+
+  /**
+   * The resolver.
+   */
+  private Resolver resolver;
+
+  /**
+   * Generate the graph.
+   */
+  @Setup
+  public void setup() {
+    Random random = new Random(packages);
+    String[] versions = {"1.0.0", "1.1.0", "2.0.0", "2.1.0", "3.0.0" };
+    String[] constraints = {"*", ">=1.0.0", "1.x || 2.x", "~2.1", "<3.0.0", ">=1.1.0 <3.0.0" };
+    registry = new HashMap<String, Map<Semver, Map<String, Semver>>>();
+    for (int i = 0; i < packages; i++) {
+      Map<Semver, Map<String, Semver>> available = new LinkedHashMap<Semver, Map<String, Semver>>();
+      for (String version : versions) {
+        Map<String, Semver> dependencies = new LinkedHashMap<String, Semver>();
+        int count = i + 1 < packages ? 1 + random.nextInt(3) : 0;
+        for (int d = 0; d < count; d++) {
+          int target = i + 1 + random.nextInt(Math.min(50, packages - i - 1));
+          dependencies.put("p" + target, Semver.create(constraints[random.nextInt(
+              constraints.length)]));
+        }
+        if (version.equals("3.0.0") && i + 1 < packages && random.nextInt(10) == 0) {
+          // a broken release
+          dependencies.put("p" + (i + 1), Semver.create("9.x"));
+        }
+        available.put(Semver.create(version), dependencies);
+      }
+      registry.put("p" + i, available);
+    }
+    Map<String, Semver> root = new LinkedHashMap<String, Semver>();
+    for (int i = 0; i < packages; i += Math.max(1, packages / 100)) {
+      root.put("p" + i, Semver.ANY);
+    }
+    Map<Semver, Map<String, Semver>> rootVersions =
+        new LinkedHashMap<Semver, Map<String, Semver>>();
+    rootVersions.put(Semver.create("1.0.0"), root);
+    registry.put("root", rootVersions);
+    resolver = new Resolver(new Provider() {
+      @Override
+      public List<? extends Semver> versions(final String name) {
+        return new ArrayList<Semver>(registry.get(name).keySet());
+      }
+
+      @Override
+      public Map<String, ? extends Semver> dependencies(final String name, final Semver version) {
+        return registry.get(name).get(version);
+      }
+    });
+  }
+
+  /**
+   * Resolve the whole graph.
+   *
+   * @return The solution.
+   */
+  @Benchmark
+  public Solution solve() {
+    return resolver.solve("root", Semver.create("1.0.0"));
+  }
+}
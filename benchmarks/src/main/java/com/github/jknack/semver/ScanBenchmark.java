@@ -0,0 +1,120 @@
+/**
+ * Copyright (c) 2013 Edgar Espina
+ *
+ * This file is part of amd4j (https://github.com/jknack/amd4j)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jknack.semver;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Parse a lockfile-like list of expressions: one {@link Semver#create(String)} per line versus a
+ * {@link SemverScanner}.
+ *
+ * @author edgar.espina
+ * @since 0.1.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScanBenchmark {
+
+  /**
+   * Number of lines.
+   */
+  @Param({"100000" })
+  public int size;
+
+  /**
+   * The lines as text.
+   */
+  private String text;
+
+  /**
+   * The lines as ASCII bytes.
+   */
+  private ByteBuffer bytes;
+
+  /**
+   * Generate the input.
+   */
+  @Setup
+  public void setup() {
+    String[] templates = {"%d.%d.%d", "~%d.%d.%d", "%d.%d.x", ">=%d.%d.%d <%d.0.0",
+        "%d.%d.%d-beta.%d" };
+    StringBuilder buffer = new StringBuilder();
+    for (int i = 0; i < size; i++) {
+      int major = i % 13;
+      buffer.append(String.format(templates[i % templates.length], major, i % 31, i % 7,
+          major + 1)).append('\n');
+    }
+    text = buffer.toString();
+    bytes = ByteBuffer.allocateDirect(text.length());
+    bytes.put(text.getBytes(StandardCharsets.US_ASCII)).flip();
+  }
+
+  /**
+   * Split the text and parse one line at a time.
+   *
+   * @return The parsed expressions.
+   */
+  @Benchmark
+  public List<Semver> sequential() {
+    List<Semver> result = new ArrayList<Semver>();
+    for (String line : text.split("\n")) {
+      result.add(Semver.create(line));
+    }
+    return result;
+  }
+
+  /**
+   * Scan the text.
+   *
+   * @return The parsed expressions.
+   */
+  @Benchmark
+  public List<Semver> scanText() {
+    return SemverScanner.lines().scan(text).versions();
+  }
+
+  /**
+   * Scan the bytes in place.
+   *
+   * @return The parsed expressions.
+   */
+  @Benchmark
+  public List<Semver> scanBytes() {
+    return SemverScanner.lines().scan(bytes).versions();
+  }
+}
@@ -0,0 +1,123 @@
+/**
+ * Copyright (c) 2013 Edgar Espina
+ *
+ * This file is part of amd4j (https://github.com/jknack/amd4j)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jknack.semver;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Sort a registry-like listing of version strings.
+ *
+ * @author edgar.espina
+ * @since 0.1.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SortBenchmark {
+
+  /**
+   * Pre-release tags used by the generated versions.
+   */
+  private static final String[] TAGS = {"alpha", "beta", "rc", "SNAPSHOT" };
+
+  /**
+   * Number of versions to sort.
+   */
+  @Param({"100", "5000" })
+  public int size;
+
+  /**
+   * The unsorted versions.
+   */
+  private List<String> versions;
+
+  /**
+   * Generate the versions. One in four has a pre-release tag.
+   */
+  @Setup
+  public void setup() {
+    Random random = new Random(size);
+    versions = new ArrayList<String>(size);
+    for (int i = 0; i < size; i++) {
+      StringBuilder version = new StringBuilder()
+          .append(random.nextInt(20)).append('.')
+          .append(random.nextInt(50)).append('.')
+          .append(random.nextInt(100));
+      if (random.nextInt(4) == 0) {
+        version.append('-').append(TAGS[random.nextInt(TAGS.length)])
+            .append('.').append(random.nextInt(10));
+      }
+      versions.add(version.toString());
+    }
+  }
+
+  /**
+   * Sort with {@link Semver#DESC}.
+   *
+   * @return The sorted versions.
+   */
+  @Benchmark
+  public List<String> desc() {
+    List<String> copy = new ArrayList<String>(versions);
+    Collections.sort(copy, Semver.DESC);
+    return copy;
+  }
+
+  /**
+   * Sort with {@link Semver#sortDescending(List)}.
+   *
+   * @return The sorted versions.
+   */
+  @Benchmark
+  public List<String> sortDescending() {
+    List<String> copy = new ArrayList<String>(versions);
+    Semver.sortDescending(copy);
+    return copy;
+  }
+
+  /**
+   * Sort with {@link Semver#parallelSortDescending(String[])}.
+   *
+   * @return The sorted versions.
+   */
+  @Benchmark
+  public String[] parallelSortDescending() {
+    String[] copy = versions.toArray(new String[versions.size()]);
+    Semver.parallelSortDescending(copy);
+    return copy;
+  }
+}
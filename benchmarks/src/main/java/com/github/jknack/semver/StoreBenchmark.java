@@ -0,0 +1,135 @@
+/**
+ * Copyright (c) 2013 Edgar Espina
+ *
+ * This file is part of amd4j (https://github.com/jknack/amd4j)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jknack.semver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Filter and sort a large set of versions: parsed versions on the heap versus a
+ * {@link VersionStore}.
+ *
+ * @author edgar.espina
+ * @since 0.1.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StoreBenchmark {
+
+  /**
+   * Number of versions.
+   */
+  @Param({"100000" })
+  public int size;
+
+  /**
+   * The parsed versions.
+   */
+  private Semver[] versions;
+
+  /**
+   * The same versions in a store.
+   */
+  private VersionStore store;
+
+  /**
+   * The constraint.
+   */
+  private Semver constraint;
+
+  /**
+   * Generate the versions.
+   */
+  @Setup
+  public void setup() {
+    String[] suffixes = {"", "-alpha", "-beta.1", "-beta.2", "-rc.1", "+build.7" };
+    versions = new Semver[size];
+    store = new VersionStore(size);
+    for (int i = 0; i < size; i++) {
+      versions[i] = Semver.create(i % 7 + "." + i % 13 + "." + i % 101 + suffixes[i % 6]);
+      store.add(versions[i]);
+    }
+    constraint = Semver.create(">=1.2.3 <4.0.0");
+  }
+
+  /**
+   * Match every parsed version.
+   *
+   * @return The matching versions.
+   */
+  @Benchmark
+  public List<Semver> heapFilter() {
+    List<Semver> result = new ArrayList<Semver>();
+    for (Semver version : versions) {
+      if (constraint.matches(version)) {
+        result.add(version);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Match every slot of the store.
+   *
+   * @return The matching slots.
+   */
+  @Benchmark
+  public int[] storeFilter() {
+    return store.filter(constraint);
+  }
+
+  /**
+   * Sort a copy of the parsed versions.
+   *
+   * @return The sorted versions.
+   */
+  @Benchmark
+  public Semver[] heapSort() {
+    Semver[] sorted = versions.clone();
+    Arrays.sort(sorted);
+    return sorted;
+  }
+
+  /**
+   * Sort the slots of the store.
+   *
+   * @return The sorted slots.
+   */
+  @Benchmark
+  public int[] storeSort() {
+    return store.sort();
+  }
+}
@@ -0,0 +1,126 @@
+/**
+ * Copyright (c) 2013 Edgar Espina
+ *
+ * This file is part of amd4j (https://github.com/jknack/amd4j)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jknack.semver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Filter a large candidate set against a constraint: a hand-written loop over
+ * {@link Semver#matches(String)} versus the stream APIs.
+ *
+ * @author edgar.espina
+ * @since 0.1.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StreamBenchmark {
+
+  /**
+   * Number of candidates.
+   */
+  @Param({"100000" })
+  public int size;
+
+  /**
+   * The candidates.
+   */
+  private String[] candidates;
+
+  /**
+   * The constraint.
+   */
+  private Semver constraint;
+
+  /**
+   * Generate the candidates.
+   */
+  @Setup
+  public void setup() {
+    candidates = new String[size];
+    for (int i = 0; i < size; i++) {
+      candidates[i] = i % 7 + "." + i % 13 + "." + i % 101;
+    }
+    constraint = Semver.create(">=1.2.3 <4.0.0");
+  }
+
+  /**
+   * Loop and match each string.
+   *
+   * @return The matching candidates.
+   */
+  @Benchmark
+  public List<String> loop() {
+    List<String> result = new ArrayList<String>();
+    for (String candidate : candidates) {
+      if (constraint.matches(candidate)) {
+        result.add(candidate);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Filter a sequential stream.
+   *
+   * @return The matching candidates.
+   */
+  @Benchmark
+  public List<Semver> filter() {
+    return constraint.filter(Arrays.stream(candidates)).collect(Collectors.toList());
+  }
+
+  /**
+   * Filter a parallel stream.
+   *
+   * @return The matching candidates.
+   */
+  @Benchmark
+  public List<Semver> parallelFilter() {
+    return constraint.filter(Arrays.stream(candidates).parallel()).collect(Collectors.toList());
+  }
+
+  /**
+   * Collect the 10 highest matches from a parallel stream.
+   *
+   * @return The 10 highest matches.
+   */
+  @Benchmark
+  public List<Semver> parallelTop() {
+    return Semver.stream(candidates).parallel().collect(constraint.top(10));
+  }
+}
@@ -0,0 +1,124 @@
+/**
+ * Copyright (c) 2013 Edgar Espina
+ *
+ * This file is part of amd4j (https://github.com/jknack/amd4j)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jknack.semver;
+
+import java.util.BitSet;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Validate user input where a share of the entries is invalid: catching exceptions versus
+ * {@link Semver#tryParse(CharSequence)} and {@link Semver#validate(CharSequence[])}.
+ *
+ * @author edgar.espina
+ * @since 0.1.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidateBenchmark {
+
+  /**
+   * Number of entries.
+   */
+  @Param({"100000" })
+  public int size;
+
+  /**
+   * One entry out of this many is invalid.
+   */
+  @Param({"4" })
+  public int invalid;
+
+  /**
+   * The entries.
+   */
+  private String[] entries;
+
+  /**
+   * Generate the entries.
+   */
+  @Setup
+  public void setup() {
+    String[] errors = {"1.2.3/4", "v1.x.y", ">= 1.2.3 |", "99999999999.0.0" };
+    entries = new String[size];
+    for (int i = 0; i < size; i++) {
+      entries[i] = i % invalid == 0 ? errors[i % errors.length]
+          : i % 7 + "." + i % 13 + "." + i % 101;
+    }
+  }
+
+  /**
+   * Parse every entry and catch the exceptions.
+   *
+   * @return The valid entries.
+   */
+  @Benchmark
+  public BitSet exceptions() {
+    BitSet valid = new BitSet(size);
+    for (int i = 0; i < size; i++) {
+      try {
+        Semver.create(entries[i]);
+        valid.set(i);
+      } catch (IllegalArgumentException ex) {
+        // invalid
+      }
+    }
+    return valid;
+  }
+
+  /**
+   * Parse every entry without exceptions.
+   *
+   * @return The valid entries.
+   */
+  @Benchmark
+  public BitSet tryParse() {
+    BitSet valid = new BitSet(size);
+    for (int i = 0; i < size; i++) {
+      if (Semver.tryParse(entries[i]).isValid()) {
+        valid.set(i);
+      }
+    }
+    return valid;
+  }
+
+  /**
+   * Validate all the entries at once.
+   *
+   * @return The valid entries.
+   */
+  @Benchmark
+  public BitSet validate() {
+    return Semver.validate(entries);
+  }
+}
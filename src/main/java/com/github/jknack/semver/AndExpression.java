@@ -31,10 +31,12 @@
  */
 package com.github.jknack.semver;
 
-import static org.apache.commons.lang3.Validate.notNull;
+import static org.apache.commons.lang3.Validate.isTrue;
+import static org.apache.commons.lang3.Validate.noNullElements;
 
 /**
- * And operator over two expression.
+ * And operator over two or more expressions. Evaluation stops at the first expression that
+ * doesn't match.
  *
  * @author edgar.espina
  * @since 0.0.1
@@ -42,43 +44,54 @@ import static org.apache.commons.lang3.Validate.notNull;
 class AndExpression extends BaseExpression {
 
   /**
-   * The left side expression.
+   * The expressions, at least two.
    */
-  private Semver left;
-
-  /**
-   * The right side expression.
-   */
-  private Semver right;
+  private final Semver[] expressions;
 
   /**
    * Creates a new {@link AndExpression}.
    *
-   * @param left The left side expression. Required.
-   * @param right The right side expression. Required.
+   * @param expressions The expressions, at least two. Required.
    */
-  public AndExpression(final Semver left, final Semver right) {
-    this.left = notNull(left, "The left side expression is required.");
-    this.right = notNull(right, "The right side expression is required.");
+  public AndExpression(final Semver... expressions) {
+    this.expressions = noNullElements(expressions, "The expressions are required.");
+    isTrue(expressions.length > 1, "At least two expressions are required.");
   }
 
   @Override
   public boolean matches(final Semver expr) {
-    boolean left = this.left.matches(expr);
-    boolean right = this.right.matches(expr);
-    return left && right;
+    for (Semver expression : expressions) {
+      if (!expression.matches(expr)) {
+        return false;
+      }
+    }
+    return true;
   }
 
   @Override
   public int compareTo(final Semver expr) {
-    boolean left = this.left.compareTo(expr) >= 0;
-    boolean right = expr.compareTo(this.right) <= 0;
+    boolean left = expressions[0].compareTo(expr) >= 0;
+    boolean right = expr.compareTo(expressions[expressions.length - 1]) <= 0;
     return left && right ? 0 : left ? -1 : 1;
   }
 
   @Override
-  public String text() {
-    return left + " " + right;
+  IntervalSet intervals() {
+    IntervalSet result = expressions[0].intervals();
+    for (int i = 1; i < expressions.length && result != null; i++) {
+      IntervalSet intervals = expressions[i].intervals();
+      result = intervals == null ? null : result.intersect(intervals);
+    }
+    return result;
+  }
+
+  @Override
+  public StringBuilder appendTo(final StringBuilder buffer) {
+    expressions[0].appendTo(buffer);
+    for (int i = 1; i < expressions.length; i++) {
+      expressions[i].appendTo(buffer.append(' '));
+    }
+    return buffer;
   }
 
   @Override
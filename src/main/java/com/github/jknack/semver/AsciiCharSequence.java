@@ -0,0 +1,124 @@
+/**
+ * Copyright (c) 2013 Edgar Espina
+ *
+ * This file is part of amd4j (https://github.com/jknack/amd4j)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jknack.semver;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A read-only view of an ASCII region of a byte buffer. Bytes are read with absolute gets, so
+ * the buffer position is never touched and nothing is copied until {@link #toString()}.
+ *
+ * @author edgar.espina
+ * @since 0.1.1
+ */
+final class AsciiCharSequence implements CharSequence {
+
+  /**
+   * The underlying bytes.
+   */
+  private final ByteBuffer buffer;
+
+  /**
+   * Absolute offset of the first byte.
+   */
+  private final int offset;
+
+  /**
+   * Number of bytes.
+   */
+  private final int length;
+
+  /**
+   * Creates a new view.
+   *
+   * @param buffer The underlying bytes.
+   * @param offset Absolute offset of the first byte.
+   * @param length Number of bytes.
+   */
+  AsciiCharSequence(final ByteBuffer buffer, final int offset, final int length) {
+    this.buffer = buffer;
+    this.offset = offset;
+    this.length = length;
+  }
+
+  /**
+   * View the remaining bytes of a buffer as characters. Pure ASCII input is wrapped, anything
+   * else is decoded as UTF-8.
+   *
+   * @param buffer The buffer.
+   * @return The remaining bytes as characters.
+   */
+  static CharSequence of(final ByteBuffer buffer) {
+    return of(buffer, buffer.position(), buffer.remaining());
+  }
+
+  /**
+   * View a region of a buffer as characters. Pure ASCII input is wrapped, anything else is
+   * decoded as UTF-8.
+   *
+   * @param buffer The buffer.
+   * @param offset Absolute offset of the first byte.
+   * @param length Number of bytes.
+   * @return The region as characters.
+   */
+  static CharSequence of(final ByteBuffer buffer, final int offset, final int length) {
+    int to = offset + length;
+    for (int i = offset; i < to; i++) {
+      if (buffer.get(i) < 0) {
+        ByteBuffer region = buffer.duplicate();
+        // Buffer methods: the ByteBuffer overloads don't exist on Java 8
+        ((Buffer) region).limit(to);
+        ((Buffer) region).position(offset);
+        return StandardCharsets.UTF_8.decode(region);
+      }
+    }
+    return new AsciiCharSequence(buffer, offset, length);
+  }
+
+  @Override
+  public int length() {
+    return length;
+  }
+
+  @Override
+  public char charAt(final int index) {
+    if (index < 0 || index >= length) {
+      throw new IndexOutOfBoundsException(String.valueOf(index));
+    }
+    return (char) buffer.get(offset + index);
+  }
+
+  @Override
+  public CharSequence subSequence(final int start, final int end) {
+    if (start < 0 || end > length || start > end) {
+      throw new IndexOutOfBoundsException("[" + start + ", " + end + ")");
+    }
+    return new AsciiCharSequence(buffer, offset + start, end - start);
+  }
+
+  @Override
+  public String toString() {
+    char[] chars = new char[length];
+    for (int i = 0; i < length; i++) {
+      chars[i] = (char) buffer.get(offset + i);
+    }
+    return new String(chars);
+  }
+}
@@ -39,13 +39,44 @@ package com.github.jknack.semver;
  */
 abstract class BaseExpression extends Semver {
 
+  /**
+   * The text, created on first use by {@link #appendTo(StringBuilder)}.
+   */
+  private String text;
+
+  /**
+   * The text of this expression. Computed once by {@link #appendTo(StringBuilder)}.
+   *
+   * @return The text of this expression.
+   */
+  @Override
+  public String text() {
+    String text = this.text;
+    if (text == null) {
+      text = appendTo(new StringBuilder()).toString();
+      this.text = text;
+    }
+    return text;
+  }
+
   @Override
   public boolean matches(final String expr) {
-    return matches(Semver.create(expr));
+    boolean matches = matches(Semver.create(expr));
+    Semver.getMetrics().stringMatched(type(), matches);
+    return matches;
   }
 
   @Override
   public boolean isStatic() {
     return type() == Type.STATIC;
   }
+
+  @Override
+  public Semver compile() {
+    IntervalSet intervals = intervals();
+    return intervals == null ? this : intervals.compiled(this);
+  }
+
+  @Override
+  public abstract StringBuilder appendTo(StringBuilder buffer);
 }
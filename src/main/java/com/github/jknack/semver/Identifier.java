@@ -0,0 +1,175 @@
+/**
+ * Copyright (c) 2013 Edgar Espina
+ *
+ * This file is part of amd4j (https://github.com/jknack/amd4j)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jknack.semver;
+
+/**
+ * A pre-release or build identifier. Identifiers are classified as numeric or alphanumeric once,
+ * when they are created, so comparing them never parses text.
+ *
+ * @author edgar.espina
+ * @since 0.1.1
+ */
+final class Identifier implements Comparable<Identifier> {
+
+  /**
+   * No identifiers.
+   */
+  static final Identifier[] NONE = {};
+
+  /**
+   * Max number of significant digits that always fit in a long.
+   */
+  private static final int MAX_DIGITS = 18;
+
+  /**
+   * The identifier text.
+   */
+  private final String text;
+
+  /**
+   * True for identifiers made of digits only.
+   */
+  private final boolean numeric;
+
+  /**
+   * Number of significant digits of a numeric identifier.
+   */
+  private final int digits;
+
+  /**
+   * The value of a numeric identifier or -1 if it doesn't fit in a long or isn't numeric.
+   */
+  private final long value;
+
+  /**
+   * Creates a new identifier.
+   *
+   * @param text The identifier text.
+   */
+  private Identifier(final String text) {
+    this.text = text;
+    int len = text.length();
+    boolean numeric = len > 0;
+    int zeros = 0;
+    for (int i = 0; i < len && numeric; i++) {
+      char ch = text.charAt(i);
+      numeric = ch >= '0' && ch <= '9';
+      if (ch == '0' && zeros == i) {
+        zeros++;
+      }
+    }
+    this.numeric = numeric;
+    this.digits = numeric ? len - zeros : 0;
+    long value = -1;
+    if (numeric && digits <= MAX_DIGITS) {
+      value = 0;
+      for (int i = zeros; i < len; i++) {
+        value = value * 10 + text.charAt(i) - '0';
+      }
+    }
+    this.value = value;
+  }
+
+  /**
+   * Creates a new identifier.
+   *
+   * @param text The identifier text.
+   * @return A new identifier.
+   */
+  public static Identifier of(final String text) {
+    return new Identifier(text);
+  }
+
+  /**
+   * True for identifiers made of digits only.
+   *
+   * @return True for identifiers made of digits only.
+   */
+  public boolean isNumeric() {
+    return numeric;
+  }
+
+  /**
+   * Numeric identifiers are compared by value and have lower precedence than alphanumeric ones.
+   * Alphanumeric identifiers are compared lexically.
+   *
+   * @param that The other identifier.
+   * @return A negative, zero or positive number.
+   */
+  @Override
+  public int compareTo(final Identifier that) {
+    if (this == that) {
+      return 0;
+    }
+    if (numeric) {
+      return that.numeric ? compareNumber(that) : -1;
+    }
+    return that.numeric ? 1 : text.compareTo(that.text);
+  }
+
+  /**
+   * Compare two numeric identifiers without overflow: by value when both fit in a long, by number
+   * of significant digits and then digit by digit otherwise.
+   *
+   * @param that The other identifier.
+   * @return A negative, zero or positive number.
+   */
+  private int compareNumber(final Identifier that) {
+    if (value >= 0 && that.value >= 0) {
+      return value < that.value ? -1 : value > that.value ? 1 : 0;
+    }
+    if (digits != that.digits) {
+      return digits < that.digits ? -1 : 1;
+    }
+    int i = text.length() - digits;
+    int j = that.text.length() - digits;
+    for (int k = 0; k < digits; k++) {
+      int result = text.charAt(i + k) - that.text.charAt(j + k);
+      if (result != 0) {
+        return result;
+      }
+    }
+    return 0;
+  }
+
+  @Override
+  public boolean equals(final Object that) {
+    if (this == that) {
+      return true;
+    }
+    return that instanceof Identifier ? compareTo((Identifier) that) == 0 : false;
+  }
+
+  @Override
+  public int hashCode() {
+    if (!numeric) {
+      return text.hashCode();
+    }
+    // leading zeros don't count
+    int hash = 0;
+    for (int i = text.length() - digits; i < text.length(); i++) {
+      hash = 31 * hash + text.charAt(i);
+    }
+    return hash;
+  }
+
+  @Override
+  public String toString() {
+    return text;
+  }
+}
@@ -0,0 +1,212 @@
+/**
+ * Copyright (c) 2013 Edgar Espina
+ *
+ * This file is part of amd4j (https://github.com/jknack/amd4j)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jknack.semver;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded, lock-free tables of the identifiers and identifier lists produced by the parser, so
+ * versions like <code>1.0.0-beta.1</code> and <code>2.3.0-beta.1</code> share a single
+ * <code>beta.1</code> array and identifiers: fewer objects on the heap and identity hits when
+ * comparing pre-releases.
+ *
+ * Tables are direct mapped: an entry is looked up by the hash of its text and a colliding entry
+ * replaces the previous one. Long texts, like commit hashes in build numbers, are rarely shared
+ * and aren't interned.
+ *
+ * @author edgar.espina
+ * @since 0.1.1
+ */
+final class IdentifierTable {
+
+  /**
+   * An interned identifier list and its source text.
+   *
+   * @author edgar.espina
+   */
+  private static final class Entry {
+
+    /**
+     * The source text, like <code>beta.1</code>.
+     */
+    private final String text;
+
+    /**
+     * The identifiers.
+     */
+    private final Identifier[] identifiers;
+
+    /**
+     * Creates a new entry.
+     *
+     * @param text The source text.
+     * @param identifiers The identifiers.
+     */
+    public Entry(final String text, final Identifier[] identifiers) {
+      this.text = text;
+      this.identifiers = identifiers;
+    }
+  }
+
+  /**
+   * Number of entries of each table. Must be a power of two.
+   */
+  private static final int SIZE = 4096;
+
+  /**
+   * Longest text to intern.
+   */
+  private static final int MAX_LENGTH = 32;
+
+  /**
+   * The interned identifiers.
+   */
+  private static final AtomicReferenceArray<Identifier> IDENTIFIERS =
+      new AtomicReferenceArray<Identifier>(SIZE);
+
+  /**
+   * The interned identifier lists.
+   */
+  private static final AtomicReferenceArray<Entry> LISTS = new AtomicReferenceArray<Entry>(SIZE);
+
+  /**
+   * Not allowed.
+   */
+  private IdentifierTable() {
+  }
+
+  /**
+   * Split the given region on '.' into identifiers, empty tokens are dropped.
+   *
+   * @param input The input.
+   * @param start The start offset.
+   * @param end The end offset.
+   * @return The identifiers, {@link Identifier#NONE} if there is none.
+   */
+  public static Identifier[] split(final CharSequence input, final int start, final int end) {
+    if (start == end) {
+      return Identifier.NONE;
+    }
+    if (end - start > MAX_LENGTH) {
+      return doSplit(input, start, end);
+    }
+    int index = index(input, start, end);
+    Entry entry = LISTS.get(index);
+    if (entry != null && matches(entry.text, input, start, end)) {
+      return entry.identifiers;
+    }
+    Identifier[] identifiers = doSplit(input, start, end);
+    if (identifiers.length > 0) {
+      LISTS.set(index, new Entry(input.subSequence(start, end).toString(), identifiers));
+    }
+    return identifiers;
+  }
+
+  /**
+   * Find or create an identifier.
+   *
+   * @param input The input.
+   * @param start The start offset.
+   * @param end The end offset.
+   * @return The identifier.
+   */
+  public static Identifier identifier(final CharSequence input, final int start, final int end) {
+    if (end - start > MAX_LENGTH) {
+      return Identifier.of(input.subSequence(start, end).toString());
+    }
+    int index = index(input, start, end);
+    Identifier identifier = IDENTIFIERS.get(index);
+    if (identifier != null && matches(identifier.toString(), input, start, end)) {
+      return identifier;
+    }
+    identifier = Identifier.of(input.subSequence(start, end).toString());
+    IDENTIFIERS.set(index, identifier);
+    return identifier;
+  }
+
+  /**
+   * Split the given region on '.' into identifiers.
+   *
+   * @param input The input.
+   * @param start The start offset.
+   * @param end The end offset.
+   * @return The identifiers.
+   */
+  private static Identifier[] doSplit(final CharSequence input, final int start, final int end) {
+    int count = 0;
+    for (int i = start; i < end; i++) {
+      if (input.charAt(i) != '.' && (i == start || input.charAt(i - 1) == '.')) {
+        count++;
+      }
+    }
+    if (count == 0) {
+      return Identifier.NONE;
+    }
+    Identifier[] tokens = new Identifier[count];
+    int i = start;
+    for (int t = 0; t < count; t++) {
+      while (input.charAt(i) == '.') {
+        i++;
+      }
+      int from = i;
+      while (i < end && input.charAt(i) != '.') {
+        i++;
+      }
+      tokens[t] = identifier(input, from, i);
+    }
+    return tokens;
+  }
+
+  /**
+   * The table index of a region.
+   *
+   * @param input The input.
+   * @param start The start offset.
+   * @param end The end offset.
+   * @return The table index.
+   */
+  private static int index(final CharSequence input, final int start, final int end) {
+    int hash = 0;
+    for (int i = start; i < end; i++) {
+      hash = 31 * hash + input.charAt(i);
+    }
+    return (hash ^ hash >>> 16) & SIZE - 1;
+  }
+
+  /**
+   * True if the text is equal to the given region.
+   *
+   * @param text The text.
+   * @param input The input.
+   * @param start The start offset.
+   * @param end The end offset.
+   * @return True if the text is equal to the given region.
+   */
+  private static boolean matches(final String text, final CharSequence input, final int start,
+      final int end) {
+    if (text.length() != end - start) {
+      return false;
+    }
+    for (int i = start; i < end; i++) {
+      if (text.charAt(i - start) != input.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
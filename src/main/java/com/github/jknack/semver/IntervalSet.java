@@ -0,0 +1,634 @@
+/**
+ * Copyright (c) 2013 Edgar Espina
+ *
+ * This file is part of amd4j (https://github.com/jknack/amd4j)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jknack.semver;
+
+import java.util.Arrays;
+
+/**
+ * A normalized union of disjoint version intervals, sorted by their lower bound. Matching a
+ * version is a binary search over the bounds. Instances are immutable.
+ *
+ * @author edgar.espina
+ * @since 0.1.1
+ */
+final class IntervalSet extends BaseExpression {
+
+  /**
+   * Collect intervals in ascending order of their lower bound. Overlapping or adjacent intervals
+   * are merged and empty ones are dropped.
+   *
+   * @author edgar.espina
+   */
+  private static final class Builder {
+
+    /**
+     * The lower bounds. Null means unbounded.
+     */
+    private Version[] lower = new Version[2];
+
+    /**
+     * True if the lower bound is inclusive.
+     */
+    private boolean[] lowerInclusive = new boolean[2];
+
+    /**
+     * The upper bounds. Null means unbounded.
+     */
+    private Version[] upper = new Version[2];
+
+    /**
+     * True if the upper bound is inclusive.
+     */
+    private boolean[] upperInclusive = new boolean[2];
+
+    /**
+     * Number of intervals.
+     */
+    private int size;
+
+    /**
+     * Add an interval. Its lower bound must not be lower than the one of the last interval.
+     *
+     * @param lo The lower bound or null.
+     * @param loInclusive True if the lower bound is inclusive.
+     * @param hi The upper bound or null.
+     * @param hiInclusive True if the upper bound is inclusive.
+     * @return This builder.
+     */
+    public Builder add(final Version lo, final boolean loInclusive, final Version hi,
+        final boolean hiInclusive) {
+      if (isEmpty(lo, loInclusive, hi, hiInclusive)) {
+        return this;
+      }
+      int last = size - 1;
+      if (last >= 0 && overlaps(upper[last], upperInclusive[last], lo, loInclusive)) {
+        if (compareUpper(hi, hiInclusive, upper[last], upperInclusive[last]) > 0) {
+          upper[last] = hi;
+          upperInclusive[last] = hiInclusive;
+        }
+        return this;
+      }
+      if (size == lower.length) {
+        int capacity = size * 2;
+        lower = Arrays.copyOf(lower, capacity);
+        lowerInclusive = Arrays.copyOf(lowerInclusive, capacity);
+        upper = Arrays.copyOf(upper, capacity);
+        upperInclusive = Arrays.copyOf(upperInclusive, capacity);
+      }
+      lower[size] = lo;
+      lowerInclusive[size] = loInclusive;
+      upper[size] = hi;
+      upperInclusive[size] = hiInclusive;
+      size++;
+      return this;
+    }
+
+    /**
+     * Creates the interval set.
+     *
+     * @return A new interval set.
+     */
+    public IntervalSet build() {
+      return new IntervalSet(Arrays.copyOf(lower, size), Arrays.copyOf(lowerInclusive, size),
+          Arrays.copyOf(upper, size), Arrays.copyOf(upperInclusive, size), null);
+    }
+  }
+
+  /**
+   * Match nothing.
+   */
+  static final IntervalSet EMPTY = new Builder().build();
+
+  /**
+   * Match any version.
+   */
+  static final IntervalSet ALL = new Builder().add(null, false, null, false).build();
+
+  /**
+   * The lower bounds. Null means unbounded.
+   */
+  private final Version[] lower;
+
+  /**
+   * True if the lower bound is inclusive.
+   */
+  private final boolean[] lowerInclusive;
+
+  /**
+   * The upper bounds. Null means unbounded.
+   */
+  private final Version[] upper;
+
+  /**
+   * True if the upper bound is inclusive.
+   */
+  private final boolean[] upperInclusive;
+
+  /**
+   * The expression this set was compiled from or null.
+   */
+  private final Semver source;
+
+  /**
+   * Creates a new interval set.
+   *
+   * @param lower The lower bounds.
+   * @param lowerInclusive True if the lower bound is inclusive.
+   * @param upper The upper bounds.
+   * @param upperInclusive True if the upper bound is inclusive.
+   * @param source The expression this set was compiled from or null.
+   */
+  private IntervalSet(final Version[] lower, final boolean[] lowerInclusive,
+      final Version[] upper, final boolean[] upperInclusive, final Semver source) {
+    this.lower = lower;
+    this.lowerInclusive = lowerInclusive;
+    this.upper = upper;
+    this.upperInclusive = upperInclusive;
+    this.source = source;
+  }
+
+  /**
+   * Creates a set with a single interval.
+   *
+   * @param lo The lower bound or null.
+   * @param loInclusive True if the lower bound is inclusive.
+   * @param hi The upper bound or null.
+   * @param hiInclusive True if the upper bound is inclusive.
+   * @return A new interval set.
+   */
+  public static IntervalSet interval(final Version lo, final boolean loInclusive,
+      final Version hi, final boolean hiInclusive) {
+    return new Builder().add(lo, loInclusive, hi, hiInclusive).build();
+  }
+
+  /**
+   * The same intervals, reporting the text and type of the expression they were compiled from.
+   *
+   * @param source The expression this set was compiled from.
+   * @return A new interval set.
+   */
+  public IntervalSet compiled(final Semver source) {
+    return new IntervalSet(lower, lowerInclusive, upper, upperInclusive, source);
+  }
+
+  /**
+   * Number of intervals.
+   *
+   * @return Number of intervals.
+   */
+  public int size() {
+    return lower.length;
+  }
+
+  /**
+   * The lower bound of an interval.
+   *
+   * @param i The interval index.
+   * @return The lower bound or null if unbounded.
+   */
+  Version lower(final int i) {
+    return lower[i];
+  }
+
+  /**
+   * True if the lower bound of an interval is inclusive.
+   *
+   * @param i The interval index.
+   * @return True if the lower bound of an interval is inclusive.
+   */
+  boolean lowerInclusive(final int i) {
+    return lowerInclusive[i];
+  }
+
+  /**
+   * The upper bound of an interval.
+   *
+   * @param i The interval index.
+   * @return The upper bound or null if unbounded.
+   */
+  Version upper(final int i) {
+    return upper[i];
+  }
+
+  /**
+   * True if the upper bound of an interval is inclusive.
+   *
+   * @param i The interval index.
+   * @return True if the upper bound of an interval is inclusive.
+   */
+  boolean upperInclusive(final int i) {
+    return upperInclusive[i];
+  }
+
+  /**
+   * True if the set matches nothing.
+   *
+   * @return True if the set matches nothing.
+   */
+  public boolean isEmpty() {
+    return lower.length == 0;
+  }
+
+  /**
+   * The union of this set and the given one.
+   *
+   * @param that The other set.
+   * @return The union of this set and the given one.
+   */
+  public IntervalSet union(final IntervalSet that) {
+    Builder builder = new Builder();
+    int i = 0, j = 0;
+    while (i < lower.length || j < that.lower.length) {
+      boolean left = j == that.lower.length || i < lower.length
+          && compareLower(lower[i], lowerInclusive[i], that.lower[j], that.lowerInclusive[j]) <= 0;
+      if (left) {
+        builder.add(lower[i], lowerInclusive[i], upper[i], upperInclusive[i]);
+        i++;
+      } else {
+        builder.add(that.lower[j], that.lowerInclusive[j], that.upper[j], that.upperInclusive[j]);
+        j++;
+      }
+    }
+    return builder.build();
+  }
+
+  /**
+   * The intersection of this set and the given one.
+   *
+   * @param that The other set.
+   * @return The intersection of this set and the given one.
+   */
+  public IntervalSet intersect(final IntervalSet that) {
+    Builder builder = new Builder();
+    int i = 0, j = 0;
+    while (i < lower.length && j < that.lower.length) {
+      // the highest lower bound and the lowest upper bound
+      boolean lo = compareLower(lower[i], lowerInclusive[i], that.lower[j],
+          that.lowerInclusive[j]) >= 0;
+      int hi = compareUpper(upper[i], upperInclusive[i], that.upper[j], that.upperInclusive[j]);
+      builder.add(lo ? lower[i] : that.lower[j], lo ? lowerInclusive[i] : that.lowerInclusive[j],
+          hi <= 0 ? upper[i] : that.upper[j], hi <= 0 ? upperInclusive[i]
+              : that.upperInclusive[j]);
+      if (hi <= 0) {
+        i++;
+      } else {
+        j++;
+      }
+    }
+    return builder.build();
+  }
+
+  /**
+   * The versions that don't belong to this set.
+   *
+   * @return The versions that don't belong to this set.
+   */
+  public IntervalSet complement() {
+    if (lower.length == 0) {
+      return ALL;
+    }
+    Builder builder = new Builder();
+    if (lower[0] != null) {
+      builder.add(null, false, lower[0], !lowerInclusive[0]);
+    }
+    for (int i = 0; i < lower.length - 1; i++) {
+      builder.add(upper[i], !upperInclusive[i], lower[i + 1], !lowerInclusive[i + 1]);
+    }
+    int last = upper.length - 1;
+    if (upper[last] != null) {
+      builder.add(upper[last], !upperInclusive[last], null, false);
+    }
+    return builder.build();
+  }
+
+  /**
+   * True if the version belongs to this set.
+   *
+   * @param version The candidate version.
+   * @return True if the version belongs to this set.
+   */
+  public boolean contains(final Version version) {
+    int i = floor(version);
+    return i >= 0 && belowUpper(version, i);
+  }
+
+  /**
+   * Find the highest version of a sorted array that belongs to this set.
+   *
+   * @param sorted Versions in ascending order.
+   * @param from The first index, inclusive.
+   * @param to The last index, exclusive.
+   * @return The index of the highest matching version or -1.
+   */
+  public int max(final Semver[] sorted, final int from, final int to) {
+    for (int i = lower.length - 1; i >= 0; i--) {
+      int hi = upperIndex(sorted, from, to, i);
+      if (hi > from && aboveLower((Version) sorted[hi - 1], i)) {
+        return hi - 1;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Find the lowest version of a sorted array that belongs to this set.
+   *
+   * @param sorted Versions in ascending order.
+   * @param from The first index, inclusive.
+   * @param to The last index, exclusive.
+   * @return The index of the lowest matching version or -1.
+   */
+  public int min(final Semver[] sorted, final int from, final int to) {
+    for (int i = 0; i < lower.length; i++) {
+      int lo = lowerIndex(sorted, from, to, i);
+      if (lo < to && belowUpper((Version) sorted[lo], i)) {
+        return lo;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Find the first version of a sorted array that is above the lower bound of an interval.
+   *
+   * @param sorted Versions in ascending order.
+   * @param from The first index, inclusive.
+   * @param to The last index, exclusive.
+   * @param i The interval index.
+   * @return An index between from and to, inclusive.
+   */
+  int lowerIndex(final Semver[] sorted, final int from, final int to, final int i) {
+    int lo = from, hi = to;
+    while (lo < hi) {
+      int mid = (lo + hi) >>> 1;
+      if (aboveLower((Version) sorted[mid], i)) {
+        hi = mid;
+      } else {
+        lo = mid + 1;
+      }
+    }
+    return lo;
+  }
+
+  /**
+   * Find the first version of a sorted array that is above the upper bound of an interval.
+   *
+   * @param sorted Versions in ascending order.
+   * @param from The first index, inclusive.
+   * @param to The last index, exclusive.
+   * @param i The interval index.
+   * @return An index between from and to, inclusive.
+   */
+  int upperIndex(final Semver[] sorted, final int from, final int to, final int i) {
+    int lo = from, hi = to;
+    while (lo < hi) {
+      int mid = (lo + hi) >>> 1;
+      if (belowUpper((Version) sorted[mid], i)) {
+        lo = mid + 1;
+      } else {
+        hi = mid;
+      }
+    }
+    return lo;
+  }
+
+  /**
+   * Find the last interval whose lower bound is below or at the given version.
+   *
+   * @param version The candidate version.
+   * @return The interval index or -1.
+   */
+  private int floor(final Version version) {
+    int lo = 0, hi = lower.length - 1, result = -1;
+    while (lo <= hi) {
+      int mid = (lo + hi) >>> 1;
+      if (aboveLower(version, mid)) {
+        result = mid;
+        lo = mid + 1;
+      } else {
+        hi = mid - 1;
+      }
+    }
+    return result;
+  }
+
+  /**
+   * True if the version is above the lower bound of the given interval.
+   *
+   * @param version The candidate version.
+   * @param i The interval index.
+   * @return True if the version is above the lower bound of the given interval.
+   */
+  private boolean aboveLower(final Version version, final int i) {
+    if (lower[i] == null) {
+      return true;
+    }
+    int result = version.compareTo(lower[i]);
+    return result > 0 || result == 0 && lowerInclusive[i];
+  }
+
+  /**
+   * True if the version is below the upper bound of the given interval.
+   *
+   * @param version The candidate version.
+   * @param i The interval index.
+   * @return True if the version is below the upper bound of the given interval.
+   */
+  private boolean belowUpper(final Version version, final int i) {
+    if (upper[i] == null) {
+      return true;
+    }
+    int result = version.compareTo(upper[i]);
+    return result < 0 || result == 0 && upperInclusive[i];
+  }
+
+  @Override
+  public boolean matches(final Semver expr) {
+    if (expr instanceof Version) {
+      return contains((Version) expr);
+    }
+    return source != null && source.matches(expr);
+  }
+
+  @Override
+  public int compareTo(final Semver expr) {
+    if (source != null) {
+      return source.compareTo(expr);
+    }
+    if (matches(expr)) {
+      return 0;
+    }
+    // same convention as ranges: -1 if the version is above the set, 1 otherwise
+    return expr instanceof Version && lower.length > 0 && aboveLower((Version) expr, 0) ? -1 : 1;
+  }
+
+  @Override
+  public Semver compile() {
+    return this;
+  }
+
+  @Override
+  IntervalSet intervals() {
+    return this;
+  }
+
+  @Override
+  public StringBuilder appendTo(final StringBuilder buffer) {
+    if (source != null) {
+      return source.appendTo(buffer);
+    }
+    if (lower.length == 0) {
+      // nothing is lower than the lowest pre-release
+      return buffer.append("<0.0.0-0");
+    }
+    for (int i = 0; i < lower.length; i++) {
+      if (i > 0) {
+        buffer.append(" || ");
+      }
+      if (lower[i] == null && upper[i] == null) {
+        buffer.append("*");
+      } else if (lower[i] != null && upper[i] != null && lower[i].compareTo(upper[i]) == 0) {
+        buffer.append("=").append(text(lower[i]));
+      } else {
+        if (lower[i] != null) {
+          buffer.append(lowerInclusive[i] ? ">=" : ">").append(text(lower[i]));
+        }
+        if (upper[i] != null) {
+          buffer.append(lower[i] != null ? " " : "")
+              .append(upperInclusive[i] ? "<=" : "<").append(text(upper[i]));
+        }
+      }
+    }
+    return buffer;
+  }
+
+  /**
+   * The text of a bound. The 'x' of x-ranges is replaced by its value.
+   *
+   * @param bound The bound.
+   * @return The text of a bound.
+   */
+  private static String text(final Version bound) {
+    String text = bound.text();
+    if (text.indexOf('x') < 0 && text.indexOf('X') < 0) {
+      return text;
+    }
+    return bound.getMajor() + "." + bound.getMinor() + "." + bound.getIncremental();
+  }
+
+  @Override
+  public Type type() {
+    if (source != null) {
+      return source.type();
+    }
+    if (lower.length == 0) {
+      return Type.LT;
+    }
+    if (lower.length > 1) {
+      return Type.OR;
+    }
+    if (lower[0] == null) {
+      return upper[0] == null ? Type.ANY : upperInclusive[0] ? Type.LT_EQ : Type.LT;
+    }
+    if (upper[0] == null) {
+      return lowerInclusive[0] ? Type.GT_EQ : Type.GT;
+    }
+    return lower[0].compareTo(upper[0]) == 0 ? Type.EQ : Type.AND;
+  }
+
+  /**
+   * True if the interval is empty.
+   *
+   * @param lo The lower bound or null.
+   * @param loInclusive True if the lower bound is inclusive.
+   * @param hi The upper bound or null.
+   * @param hiInclusive True if the upper bound is inclusive.
+   * @return True if the interval is empty.
+   */
+  private static boolean isEmpty(final Version lo, final boolean loInclusive, final Version hi,
+      final boolean hiInclusive) {
+    if (lo == null || hi == null) {
+      return false;
+    }
+    int result = lo.compareTo(hi);
+    return result > 0 || result == 0 && !(loInclusive && hiInclusive);
+  }
+
+  /**
+   * True if an interval ending at the given upper bound overlaps or touches an interval starting
+   * at the given lower bound.
+   *
+   * @param hi The upper bound or null.
+   * @param hiInclusive True if the upper bound is inclusive.
+   * @param lo The lower bound or null.
+   * @param loInclusive True if the lower bound is inclusive.
+   * @return True if both intervals can be merged.
+   */
+  private static boolean overlaps(final Version hi, final boolean hiInclusive, final Version lo,
+      final boolean loInclusive) {
+    if (hi == null || lo == null) {
+      return true;
+    }
+    int result = lo.compareTo(hi);
+    return result < 0 || result == 0 && (loInclusive || hiInclusive);
+  }
+
+  /**
+   * Compare two lower bounds. Null is the lowest, and an inclusive bound is lower than an
+   * exclusive one on the same version.
+   *
+   * @param a The first bound.
+   * @param aInclusive True if the first bound is inclusive.
+   * @param b The second bound.
+   * @param bInclusive True if the second bound is inclusive.
+   * @return A negative, zero or positive number.
+   */
+  private static int compareLower(final Version a, final boolean aInclusive, final Version b,
+      final boolean bInclusive) {
+    if (a == null || b == null) {
+      return a == b ? 0 : a == null ? -1 : 1;
+    }
+    int result = a.compareTo(b);
+    if (result != 0 || aInclusive == bInclusive) {
+      return result;
+    }
+    return aInclusive ? -1 : 1;
+  }
+
+  /**
+   * Compare two upper bounds. Null is the highest, and an inclusive bound is higher than an
+   * exclusive one on the same version.
+   *
+   * @param a The first bound.
+   * @param aInclusive True if the first bound is inclusive.
+   * @param b The second bound.
+   * @param bInclusive True if the second bound is inclusive.
+   * @return A negative, zero or positive number.
+   */
+  private static int compareUpper(final Version a, final boolean aInclusive, final Version b,
+      final boolean bInclusive) {
+    if (a == null || b == null) {
+      return a == b ? 0 : a == null ? 1 : -1;
+    }
+    int result = a.compareTo(b);
+    if (result != 0 || aInclusive == bInclusive) {
+      return result;
+    }
+    return aInclusive ? 1 : -1;
+  }
+}
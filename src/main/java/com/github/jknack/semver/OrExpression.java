@@ -31,10 +31,12 @@
  */
 package com.github.jknack.semver;
 
-import static org.apache.commons.lang3.Validate.notNull;
+import static org.apache.commons.lang3.Validate.isTrue;
+import static org.apache.commons.lang3.Validate.noNullElements;
 
 /**
- * Logical OR.
+ * Logical OR over two or more expressions. Evaluation stops at the first expression that
+ * matches.
  *
  * @author edgar.espina
  * @since 0.0.1
@@ -42,42 +44,65 @@ import static org.apache.commons.lang3.Validate.notNull;
 class OrExpression extends BaseExpression {
 
   /**
-   * The left side expression.
+   * The expressions, at least two.
    */
-  private Semver left;
-
-  /**
-   * The right side expression.
-   */
-  private Semver right;
+  private final Semver[] expressions;
 
   /**
    * Creates a new expression.
-   * @param left The left side expression.
-   * @param right The right side expression.
+   *
+   * @param expressions The expressions, at least two. Required.
    */
-  public OrExpression(final Semver left, final Semver right) {
-    this.left = notNull(left, "The left side expression is required.");
-    this.right = notNull(right, "The right side expression is required.");
+  public OrExpression(final Semver... expressions) {
+    this.expressions = noNullElements(expressions, "The expressions are required.");
+    isTrue(expressions.length > 1, "At least two expressions are required.");
   }
 
   @Override
   public boolean matches(final Semver expr) {
-    boolean left = this.left.matches(expr);
-    boolean right = this.right.matches(expr);
-    return left || right;
+    for (Semver expression : expressions) {
+      if (expression.matches(expr)) {
+        return true;
+      }
+    }
+    return false;
   }
 
   @Override
   public int compareTo(final Semver expr) {
-    boolean left = this.left.compareTo(expr) >= 0;
-    boolean right = expr.compareTo(this.right) <= 0;
+    boolean left = expressions[0].compareTo(expr) >= 0;
+    boolean right = expr.compareTo(expressions[expressions.length - 1]) <= 0;
     return left && right ? 0 : left ? -1 : 1;
   }
 
   @Override
-  public String text() {
-    return left + " || " + right;
+  IntervalSet intervals() {
+    IntervalSet[] sets = new IntervalSet[expressions.length];
+    for (int i = 0; i < sets.length; i++) {
+      sets[i] = expressions[i].intervals();
+      if (sets[i] == null) {
+        return null;
+      }
+    }
+    // merge pairs until one is left, so long chains cost O(k log k)
+    for (int size = sets.length; size > 1; size = (size + 1) / 2) {
+      for (int i = 0; i < size / 2; i++) {
+        sets[i] = sets[2 * i].union(sets[2 * i + 1]);
+      }
+      if (size % 2 == 1) {
+        sets[size / 2] = sets[size - 1];
+      }
+    }
+    return sets[0];
+  }
+
+  @Override
+  public StringBuilder appendTo(final StringBuilder buffer) {
+    expressions[0].appendTo(buffer);
+    for (int i = 1; i < expressions.length; i++) {
+      expressions[i].appendTo(buffer.append(" || "));
+    }
+    return buffer;
   }
 
   @Override
@@ -0,0 +1,233 @@
+/**
+ * Copyright (c) 2013 Edgar Espina
+ *
+ * This file is part of amd4j (https://github.com/jknack/amd4j)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jknack.semver;
+
+import com.github.jknack.semver.SemverMetrics.Failure;
+
+/**
+ * The outcome of {@link Semver#tryParse(CharSequence)}: an expression or the description of a
+ * parse error. Invalid input is reported without creating exceptions, so validating large
+ * amounts of user input stays cheap.
+ *
+ * <pre>
+ * ParseResult result = Semver.tryParse(input);
+ * if (result.isValid()) {
+ *   Semver semver = result.get();
+ * } else {
+ *   log.warn("{} at {}", result.getMessage(), result.getPosition());
+ * }
+ * </pre>
+ *
+ * @author edgar.espina
+ * @since 0.1.1
+ */
+public final class ParseResult {
+
+  /**
+   * The expression or null.
+   */
+  private final Semver value;
+
+  /**
+   * The input, for errors only.
+   */
+  private final String input;
+
+  /**
+   * The error category or null.
+   */
+  private final Failure failure;
+
+  /**
+   * Offset of the error in the input or -1.
+   */
+  private final int position;
+
+  /**
+   * The character at the error position or {@link SemverParser#EOF}.
+   */
+  private final char found;
+
+  /**
+   * Start of the offending number or URL.
+   */
+  private final int from;
+
+  /**
+   * End of the offending number or URL.
+   */
+  private final int to;
+
+  /**
+   * The expected tokens of a syntax error, the message of a URL error or null.
+   */
+  private final String detail;
+
+  /**
+   * Creates a new result.
+   *
+   * @param value The expression or null.
+   * @param input The input, for errors only.
+   * @param failure The error category or null.
+   * @param position Offset of the error in the input or -1.
+   * @param found The character at the error position.
+   * @param from Start of the offending number or URL.
+   * @param to End of the offending number or URL.
+   * @param detail The expected tokens or the URL error message.
+   */
+  private ParseResult(final Semver value, final String input, final Failure failure,
+      final int position, final char found, final int from, final int to,
+      final String detail) {
+    this.value = value;
+    this.input = input;
+    this.failure = failure;
+    this.position = position;
+    this.found = found;
+    this.from = from;
+    this.to = to;
+    this.detail = detail;
+  }
+
+  /**
+   * A successful parse.
+   *
+   * @param value The expression.
+   * @return A new result.
+   */
+  static ParseResult success(final Semver value) {
+    return new ParseResult(value, null, null, -1, SemverParser.EOF, 0, 0, null);
+  }
+
+  /**
+   * A failed parse.
+   *
+   * @param input The input.
+   * @param failure The error category.
+   * @param position Offset of the error in the input.
+   * @param found The character at the error position.
+   * @param from Start of the offending number or URL.
+   * @param to End of the offending number or URL.
+   * @param detail The expected tokens or the URL error message.
+   * @return A new result.
+   */
+  static ParseResult failure(final String input, final Failure failure, final int position,
+      final char found, final int from, final int to, final String detail) {
+    return new ParseResult(null, input, failure, position, found, from, to, detail);
+  }
+
+  /**
+   * True if the input is a valid expression.
+   *
+   * @return True if the input is a valid expression.
+   */
+  public boolean isValid() {
+    return value != null;
+  }
+
+  /**
+   * The expression.
+   *
+   * @return The expression.
+   * @throws IllegalArgumentException If the input isn't valid, the same exception
+   *         {@link Semver#create(CharSequence)} throws.
+   */
+  public Semver get() {
+    if (value == null) {
+      throw exception();
+    }
+    return value;
+  }
+
+  /**
+   * The expression or the given default if the input isn't valid.
+   *
+   * @param other The default.
+   * @return The expression or the given default.
+   */
+  public Semver orElse(final Semver other) {
+    return value == null ? other : value;
+  }
+
+  /**
+   * The error category.
+   *
+   * @return The error category or null if the input is valid.
+   */
+  public Failure getFailure() {
+    return failure;
+  }
+
+  /**
+   * Offset of the error in the input.
+   *
+   * @return Offset of the error in the input or -1 if the input is valid.
+   */
+  public int getPosition() {
+    return position;
+  }
+
+  /**
+   * What the parser expected at the error position, like <code>0-9+ or x</code>.
+   *
+   * @return The expected tokens or null for valid input or non-syntax errors.
+   */
+  public String getExpected() {
+    return failure == Failure.SYNTAX ? detail : null;
+  }
+
+  /**
+   * The error message, the same of the exception thrown by {@link Semver#create(CharSequence)}.
+   *
+   * @return The error message or null if the input is valid.
+   */
+  public String getMessage() {
+    if (failure == null) {
+      return null;
+    }
+    switch (failure) {
+      case SYNTAX:
+        return "found: '" + (found == SemverParser.EOF ? "eof" : found) + "', expected: '"
+            + detail + "'";
+      case NUMBER:
+        return "For input string: \"" + input.substring(from, to) + "\"";
+      default:
+        return detail;
+    }
+  }
+
+  /**
+   * The exception {@link Semver#create(CharSequence)} throws for the same input.
+   *
+   * @return A new exception.
+   */
+  IllegalArgumentException exception() {
+    switch (failure) {
+      case SYNTAX:
+        return new SemverParseException(getMessage(), position);
+      case NUMBER:
+        return new NumberFormatException(getMessage());
+      default:
+        return new IllegalArgumentException(getMessage());
+    }
+  }
+
+  @Override
+  public String toString() {
+    return value == null ? getMessage() : value.text();
+  }
+}
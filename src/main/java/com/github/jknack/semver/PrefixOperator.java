@@ -40,9 +40,10 @@ package com.github.jknack.semver;
 interface PrefixOperator {
 
   /**
-   * Set the expression.
+   * Creates a new expression for the given operand.
    *
    * @param expr The prefixed expression.
+   * @return A new expression.
    */
-  Semver setExpression(Semver expr);
+  Semver create(Semver expr);
 }
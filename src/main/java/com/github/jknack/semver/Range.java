@@ -39,50 +39,71 @@ import static org.apache.commons.lang3.Validate.notNull;
  * @author edgar.espina
  * @since 0.0.1
  */
-abstract class Range extends BaseExpression implements PrefixOperator {
+abstract class Range extends BaseExpression {
+
+  /**
+   * Creates tilde range expressions.
+   */
+  private static final PrefixOperator TILDE = new PrefixOperator() {
+    @Override
+    public Semver create(final Semver expr) {
+      return new Range(expr) {
+        @Override
+        public StringBuilder appendTo(final StringBuilder buffer) {
+          return left.appendTo(buffer.append('~'));
+        }
+
+        @Override
+        public Type type() {
+          return Type.TILDE;
+        }
+      };
+    }
+  };
 
   /**
    * The left side expression.
    */
-  protected Version left;
+  protected final Version left;
 
   /**
    * The right side expression.
    */
-  protected Version right;
+  protected final Version right;
+
+  /**
+   * The exclusive upper bound of an open range, computed once. Null for a closed range.
+   */
+  protected final Version limit;
 
   /**
    * Creates a new range.
    *
-   * @param expr The left side expression.
+   * @param left The left side expression.
+   * @param right The right side expression or null for an open range.
    */
-  public Range(final Semver expr) {
-    left = notNull((Version) expr, "The left side expression is required.");
+  public Range(final Version left, final Version right) {
+    this.left = notNull(left, "The left side expression is required.");
+    this.right = right;
+    this.limit = right == null ? left.nextMajor() : null;
   }
 
   /**
-   * Default constructor.
+   * Creates a new open range.
+   *
+   * @param expr The left side expression.
    */
-  public Range() {
+  public Range(final Semver expr) {
+    this((Version) expr, null);
   }
 
   /**
-   * Creates a tilde range expression.
+   * Creates a tilde range operator.
    *
-   * @return A tilde range expression.
+   * @return A tilde range operator.
    */
-  public static Range tilde() {
-    return new Range() {
-      @Override
-      public String text() {
-        return "~" + left;
-      }
-
-      @Override
-      public Type type() {
-        return Type.TILDE;
-      }
-    };
+  public static PrefixOperator tilde() {
+    return TILDE;
   }
 
   /**
@@ -94,8 +115,8 @@ abstract class Range extends BaseExpression implements PrefixOperator {
   public static Range x(final Semver expr) {
     return new Range(expr) {
       @Override
-      public String text() {
-        return left.toString();
+      public StringBuilder appendTo(final StringBuilder buffer) {
+        return left.appendTo(buffer);
       }
 
       @Override
@@ -113,10 +134,10 @@ abstract class Range extends BaseExpression implements PrefixOperator {
    * @return A new range expression.
    */
   public static Range range(final Version left, final Version right) {
-    Range range = new Range() {
+    return new Range(left, notNull(right, "The right side expression is required.")) {
       @Override
-      public String text() {
-        return left + " - " + right;
+      public StringBuilder appendTo(final StringBuilder buffer) {
+        return right.appendTo(left.appendTo(buffer).append(" - "));
       }
 
       @Override
@@ -124,9 +145,6 @@ abstract class Range extends BaseExpression implements PrefixOperator {
         return Type.RANGE;
       }
     };
-    range.setLeft(left);
-    range.setRight(right);
-    return range;
   }
 
   @Override
@@ -134,37 +152,20 @@ abstract class Range extends BaseExpression implements PrefixOperator {
     return compareTo(expr) == 0;
   }
 
+  @Override
+  IntervalSet intervals() {
+    return right == null
+        ? IntervalSet.interval(left, true, limit, false)
+        : IntervalSet.interval(left, true, right, true);
+  }
+
   @Override
   public int compareTo(final Semver expr) {
     boolean left = expr.compareTo(this.left) >= 0;
     boolean right = this.right == null
-        ? expr.compareTo(this.left.nextMajor()) < 0
+        ? expr.compareTo(limit) < 0
         : expr.compareTo(this.right) <= 0;
     return left && right ? 0 : left ? -1 : 1;
   }
 
-  @Override
-  public Semver setExpression(final Semver expression) {
-    setLeft((Version) expression);
-    return this;
-  }
-
-  /**
-   * Set the left side expression.
-   *
-   * @param left The left side expression.
-   */
-  public void setLeft(final Version left) {
-    this.left = left;
-  }
-
-  /**
-   * Set the right side expression.
-   *
-   * @param right The right side expression.
-   */
-  public void setRight(final Version right) {
-    this.right = right;
-  }
-
 }
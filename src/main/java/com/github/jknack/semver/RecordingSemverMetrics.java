@@ -0,0 +1,351 @@
+/**
+ * Copyright (c) 2013 Edgar Espina
+ *
+ * This file is part of amd4j (https://github.com/jknack/amd4j)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jknack.semver;
+
+import static org.apache.commons.lang3.Validate.inclusiveBetween;
+import static org.apache.commons.lang3.Validate.notNull;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe in-memory {@link SemverMetrics}: counters plus latency histograms with power of two
+ * buckets. Use {@link #publish(Sink)} to push the values to a metrics registry.
+ *
+ * <pre>
+ * RecordingSemverMetrics metrics = new RecordingSemverMetrics();
+ * Semver.setMetrics(metrics);
+ * ...
+ * metrics.publish(new RecordingSemverMetrics.Sink() {
+ *   public void counter(String name, String tag, long value) {
+ *     registry.gauge(name, tag, value);
+ *   }
+ *
+ *   public void histogram(String name, String tag, long[] buckets) {
+ *   }
+ * });
+ * </pre>
+ *
+ * @author edgar.espina
+ * @since 0.1.1
+ */
+public final class RecordingSemverMetrics implements SemverMetrics {
+
+  /**
+   * Receive recorded values.
+   *
+   * @author edgar.espina
+   */
+  public interface Sink {
+
+    /**
+     * A counter.
+     *
+     * @param name The metric name, like <code>semver.parse</code>.
+     * @param tag The {@link Semver.Type}, {@link SemverMetrics.Failure} or null.
+     * @param value The current value.
+     */
+    void counter(String name, String tag, long value);
+
+    /**
+     * A latency histogram.
+     *
+     * @param name The metric name, like <code>semver.parse.nanos</code>.
+     * @param tag The {@link Semver.Type}.
+     * @param buckets Bucket <code>i</code> counts the samples in
+     *        <code>[2<sup>i</sup>, 2<sup>i+1</sup>)</code> nanoseconds.
+     */
+    void histogram(String name, String tag, long[] buckets);
+  }
+
+  /**
+   * Number of histogram buckets.
+   */
+  private static final int BUCKETS = 64;
+
+  /**
+   * The expression types.
+   */
+  private static final Semver.Type[] TYPES = Semver.Type.values();
+
+  /**
+   * The failure categories.
+   */
+  private static final Failure[] FAILURES = Failure.values();
+
+  /**
+   * Parse count by type.
+   */
+  private final LongAdder[] parses = adders(TYPES.length);
+
+  /**
+   * Parse latency by type.
+   */
+  private final AtomicLongArray[] latencies = new AtomicLongArray[TYPES.length];
+
+  /**
+   * String match count by type.
+   */
+  private final LongAdder[] stringMatches = adders(TYPES.length);
+
+  /**
+   * Successful string match count by type.
+   */
+  private final LongAdder[] stringMatched = adders(TYPES.length);
+
+  /**
+   * Parse error count by category.
+   */
+  private final LongAdder[] failures = adders(FAILURES.length);
+
+  /**
+   * Cache hits.
+   */
+  private final LongAdder cacheHits = new LongAdder();
+
+  /**
+   * Cache misses.
+   */
+  private final LongAdder cacheMisses = new LongAdder();
+
+  /**
+   * Cache evictions.
+   */
+  private final LongAdder cacheEvictions = new LongAdder();
+
+  /**
+   * Creates a new {@link RecordingSemverMetrics}.
+   */
+  public RecordingSemverMetrics() {
+    for (int i = 0; i < latencies.length; i++) {
+      latencies[i] = new AtomicLongArray(BUCKETS);
+    }
+  }
+
+  @Override
+  public void parsed(final Semver.Type type, final long nanos) {
+    parses[type.ordinal()].increment();
+    latencies[type.ordinal()].incrementAndGet(bucket(nanos));
+  }
+
+  @Override
+  public void parseFailed(final Failure failure, final long nanos) {
+    failures[failure.ordinal()].increment();
+  }
+
+  @Override
+  public void stringMatched(final Semver.Type type, final boolean matches) {
+    stringMatches[type.ordinal()].increment();
+    if (matches) {
+      stringMatched[type.ordinal()].increment();
+    }
+  }
+
+  @Override
+  public void cacheHit() {
+    cacheHits.increment();
+  }
+
+  @Override
+  public void cacheMiss() {
+    cacheMisses.increment();
+  }
+
+  @Override
+  public void cacheEviction() {
+    cacheEvictions.increment();
+  }
+
+  /**
+   * Number of parsed expressions of the given type.
+   *
+   * @param type The expression type.
+   * @return Number of parsed expressions.
+   */
+  public long parses(final Semver.Type type) {
+    return parses[notNull(type, "The type is required.").ordinal()].sum();
+  }
+
+  /**
+   * The parse latency histogram of the given type. Bucket <code>i</code> counts the samples in
+   * <code>[2<sup>i</sup>, 2<sup>i+1</sup>)</code> nanoseconds.
+   *
+   * @param type The expression type.
+   * @return A copy of the histogram.
+   */
+  public long[] latencies(final Semver.Type type) {
+    AtomicLongArray histogram = latencies[notNull(type, "The type is required.").ordinal()];
+    long[] buckets = new long[BUCKETS];
+    for (int i = 0; i < BUCKETS; i++) {
+      buckets[i] = histogram.get(i);
+    }
+    return buckets;
+  }
+
+  /**
+   * An upper bound of the given parse latency percentile, within a factor of two.
+   *
+   * @param type The expression type.
+   * @param percentile The percentile, between 0 and 1.
+   * @return The latency in nanoseconds or 0 if there is no sample.
+   */
+  public long latency(final Semver.Type type, final double percentile) {
+    inclusiveBetween(0.0, 1.0, percentile, "The percentile must be between 0 and 1: %s",
+        percentile);
+    long[] buckets = latencies(type);
+    long total = 0;
+    for (long count : buckets) {
+      total += count;
+    }
+    long rank = (long) Math.ceil(percentile * total);
+    long seen = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      seen += buckets[i];
+      if (seen >= rank && buckets[i] > 0) {
+        return i == BUCKETS - 1 ? Long.MAX_VALUE : 1L << i + 1;
+      }
+    }
+    return 0;
+  }
+
+  /**
+   * Number of {@link Semver#matches(String) string matches} of the given expression type.
+   *
+   * @param type The expression type.
+   * @return Number of string matches.
+   */
+  public long stringMatches(final Semver.Type type) {
+    return stringMatches[notNull(type, "The type is required.").ordinal()].sum();
+  }
+
+  /**
+   * Number of successful {@link Semver#matches(String) string matches} of the given expression
+   * type.
+   *
+   * @param type The expression type.
+   * @return Number of successful string matches.
+   */
+  public long stringMatched(final Semver.Type type) {
+    return stringMatched[notNull(type, "The type is required.").ordinal()].sum();
+  }
+
+  /**
+   * Number of parse errors of the given category.
+   *
+   * @param failure The error category.
+   * @return Number of parse errors.
+   */
+  public long failures(final Failure failure) {
+    return failures[notNull(failure, "The failure is required.").ordinal()].sum();
+  }
+
+  /**
+   * Number of cache hits.
+   *
+   * @return Number of cache hits.
+   */
+  public long cacheHits() {
+    return cacheHits.sum();
+  }
+
+  /**
+   * Number of cache misses.
+   *
+   * @return Number of cache misses.
+   */
+  public long cacheMisses() {
+    return cacheMisses.sum();
+  }
+
+  /**
+   * Number of cache evictions.
+   *
+   * @return Number of cache evictions.
+   */
+  public long cacheEvictions() {
+    return cacheEvictions.sum();
+  }
+
+  /**
+   * Push the current values to a sink. Types and categories without samples are skipped.
+   *
+   * @param sink The sink. Required.
+   */
+  public void publish(final Sink sink) {
+    notNull(sink, "The sink is required.");
+    for (Semver.Type type : TYPES) {
+      long count = parses(type);
+      if (count > 0) {
+        sink.counter("semver.parse", type.name(), count);
+        sink.histogram("semver.parse.nanos", type.name(), latencies(type));
+      }
+      count = stringMatches(type);
+      if (count > 0) {
+        sink.counter("semver.match.string", type.name(), count);
+        sink.counter("semver.match.string.true", type.name(), stringMatched(type));
+      }
+    }
+    for (Failure failure : FAILURES) {
+      long count = failures(failure);
+      if (count > 0) {
+        sink.counter("semver.parse.error", failure.name(), count);
+      }
+    }
+    sink.counter("semver.cache.hit", null, cacheHits());
+    sink.counter("semver.cache.miss", null, cacheMisses());
+    sink.counter("semver.cache.eviction", null, cacheEvictions());
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder buffer = new StringBuilder("RecordingSemverMetrics[");
+    String sep = "";
+    for (Semver.Type type : TYPES) {
+      long count = parses(type);
+      if (count > 0) {
+        buffer.append(sep).append(type).append("=").append(count);
+        sep = ", ";
+      }
+    }
+    return buffer.append("]").toString();
+  }
+
+  /**
+   * The histogram bucket of a latency.
+   *
+   * @param nanos The latency.
+   * @return The bucket index.
+   */
+  private static int bucket(final long nanos) {
+    return 63 - Long.numberOfLeadingZeros(Math.max(1, nanos));
+  }
+
+  /**
+   * Creates an array of counters.
+   *
+   * @param size The array size.
+   * @return An array of counters.
+   */
+  private static LongAdder[] adders(final int size) {
+    LongAdder[] adders = new LongAdder[size];
+    for (int i = 0; i < size; i++) {
+      adders[i] = new LongAdder();
+    }
+    return adders;
+  }
+}
@@ -31,14 +31,15 @@
  */
 package com.github.jknack.semver;
 
+import static org.apache.commons.lang3.Validate.notNull;
+
 /**
  * Relational operators.
  *
  * @author edgar.espina
  * @since 0.0.1
  */
-abstract class RelationalOp extends BaseExpression implements
-    PrefixOperator {
+abstract class RelationalOp extends BaseExpression {
 
   /**
    * Equals.
@@ -46,14 +47,23 @@ abstract class RelationalOp extends BaseExpression implements
    * @author edgar.espina
    */
   static class EqualsTo extends RelationalOp {
+    /**
+     * Creates a new operator.
+     *
+     * @param expr The expression.
+     */
+    public EqualsTo(final Semver expr) {
+      super(expr);
+    }
+
     @Override
     public boolean matches(final Semver expr) {
       return compareTo(expr) == 0;
     }
 
     @Override
-    public String text() {
-      return "=" + expression;
+    public StringBuilder appendTo(final StringBuilder buffer) {
+      return expression.appendTo(buffer.append("="));
     }
 
     @Override
@@ -68,14 +78,23 @@ abstract class RelationalOp extends BaseExpression implements
    * @author edgar.espina
    */
   static class LessThan extends RelationalOp {
+    /**
+     * Creates a new operator.
+     *
+     * @param expr The expression.
+     */
+    public LessThan(final Semver expr) {
+      super(expr);
+    }
+
     @Override
     public boolean matches(final Semver expr) {
       return compareTo(expr) < 0;
     }
 
     @Override
-    public String text() {
-      return "<" + expression;
+    public StringBuilder appendTo(final StringBuilder buffer) {
+      return expression.appendTo(buffer.append("<"));
     }
 
     @Override
@@ -90,14 +109,23 @@ abstract class RelationalOp extends BaseExpression implements
    * @author edgar.espina
    */
   static class LessThanEqualsTo extends RelationalOp {
+    /**
+     * Creates a new operator.
+     *
+     * @param expr The expression.
+     */
+    public LessThanEqualsTo(final Semver expr) {
+      super(expr);
+    }
+
     @Override
     public boolean matches(final Semver expr) {
       return compareTo(expr) <= 0;
     }
 
     @Override
-    public String text() {
-      return "<=" + expression;
+    public StringBuilder appendTo(final StringBuilder buffer) {
+      return expression.appendTo(buffer.append("<="));
     }
 
     @Override
@@ -112,14 +140,23 @@ abstract class RelationalOp extends BaseExpression implements
    * @author edgar.espina
    */
   static class GreaterThan extends RelationalOp {
+    /**
+     * Creates a new operator.
+     *
+     * @param expr The expression.
+     */
+    public GreaterThan(final Semver expr) {
+      super(expr);
+    }
+
     @Override
     public boolean matches(final Semver expr) {
       return compareTo(expr) > 0;
     }
 
     @Override
-    public String text() {
-      return ">" + expression;
+    public StringBuilder appendTo(final StringBuilder buffer) {
+      return expression.appendTo(buffer.append(">"));
     }
 
     @Override
@@ -134,14 +171,23 @@ abstract class RelationalOp extends BaseExpression implements
    * @author edgar.espina
    */
   static class GreatherThanEqualsTo extends RelationalOp {
+    /**
+     * Creates a new operator.
+     *
+     * @param expr The expression.
+     */
+    public GreatherThanEqualsTo(final Semver expr) {
+      super(expr);
+    }
+
     @Override
     public boolean matches(final Semver expr) {
       return compareTo(expr) >= 0;
     }
 
     @Override
-    public String text() {
-      return ">=" + expression;
+    public StringBuilder appendTo(final StringBuilder buffer) {
+      return expression.appendTo(buffer.append(">="));
     }
 
     @Override
@@ -150,15 +196,68 @@ abstract class RelationalOp extends BaseExpression implements
     }
   }
 
+  /**
+   * Creates less than expressions.
+   */
+  private static final PrefixOperator LT = new PrefixOperator() {
+    @Override
+    public Semver create(final Semver expr) {
+      return new LessThan(expr);
+    }
+  };
+
+  /**
+   * Creates less than or equals to expressions.
+   */
+  private static final PrefixOperator LT_EQ = new PrefixOperator() {
+    @Override
+    public Semver create(final Semver expr) {
+      return new LessThanEqualsTo(expr);
+    }
+  };
+
+  /**
+   * Creates greater than expressions.
+   */
+  private static final PrefixOperator GT = new PrefixOperator() {
+    @Override
+    public Semver create(final Semver expr) {
+      return new GreaterThan(expr);
+    }
+  };
+
+  /**
+   * Creates greater than or equals to expressions.
+   */
+  private static final PrefixOperator GT_EQ = new PrefixOperator() {
+    @Override
+    public Semver create(final Semver expr) {
+      return new GreatherThanEqualsTo(expr);
+    }
+  };
+
+  /**
+   * Creates equals to expressions.
+   */
+  private static final PrefixOperator EQ = new PrefixOperator() {
+    @Override
+    public Semver create(final Semver expr) {
+      return new EqualsTo(expr);
+    }
+  };
+
   /**
    * The expression.
    */
-  protected Semver expression;
+  protected final Semver expression;
 
-  @Override
-  public Semver setExpression(final Semver expr) {
-    expression = expr;
-    return this;
+  /**
+   * Creates a new relational operator.
+   *
+   * @param expr The expression. Required.
+   */
+  public RelationalOp(final Semver expr) {
+    expression = notNull(expr, "The expression is required.");
   }
 
   @Override
@@ -166,13 +265,35 @@ abstract class RelationalOp extends BaseExpression implements
     return expr.compareTo(expression);
   }
 
+  @Override
+  IntervalSet intervals() {
+    if (!(expression instanceof Version)) {
+      return null;
+    }
+    Version version = (Version) expression;
+    switch (type()) {
+      case EQ:
+        return IntervalSet.interval(version, true, version, true);
+      case LT:
+        return IntervalSet.interval(null, false, version, false);
+      case LT_EQ:
+        return IntervalSet.interval(null, false, version, true);
+      case GT:
+        return IntervalSet.interval(version, false, null, false);
+      case GT_EQ:
+        return IntervalSet.interval(version, true, null, false);
+      default:
+        return null;
+    }
+  }
+
   /**
    * Creates a new less than operator.
    *
    * @return A new less than operator.
    */
-  public static RelationalOp lt() {
-    return new LessThan();
+  public static PrefixOperator lt() {
+    return LT;
   }
 
   /**
@@ -180,8 +301,8 @@ abstract class RelationalOp extends BaseExpression implements
    *
    * @return A new less than or equals to operator.
    */
-  public static RelationalOp ltEq() {
-    return new LessThanEqualsTo();
+  public static PrefixOperator ltEq() {
+    return LT_EQ;
   }
 
   /**
@@ -189,8 +310,8 @@ abstract class RelationalOp extends BaseExpression implements
    *
    * @return A new greater than operator.
    */
-  public static RelationalOp gt() {
-    return new GreaterThan();
+  public static PrefixOperator gt() {
+    return GT;
   }
 
   /**
@@ -198,8 +319,8 @@ abstract class RelationalOp extends BaseExpression implements
    *
    * @return A new greater than or equals to operator.
    */
-  public static RelationalOp gtEq() {
-    return new GreatherThanEqualsTo();
+  public static PrefixOperator gtEq() {
+    return GT_EQ;
   }
 
   /**
@@ -207,7 +328,7 @@ abstract class RelationalOp extends BaseExpression implements
    *
    * @return A new equals to operator.
    */
-  public static RelationalOp eq() {
-    return new EqualsTo();
+  public static PrefixOperator eq() {
+    return EQ;
   }
 }
@@ -31,7 +31,23 @@
  */
 package com.github.jknack.semver;
 
+import static org.apache.commons.lang3.Validate.isTrue;
+import static org.apache.commons.lang3.Validate.notNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
 import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.ServiceLoader;
+import java.util.stream.Collector;
+import java.util.stream.Stream;
 
 /**
  * A semantic version.
@@ -67,7 +83,7 @@ public abstract class Semver implements Comparable<Semver> {
   public static final Semver LATEST = new BaseExpression() {
     @Override
     public boolean matches(final Semver expr) {
-      return text().equals(expr.text());
+      return expr == this || text().equals(expr.text());
     }
 
     @Override
@@ -80,6 +96,11 @@ public abstract class Semver implements Comparable<Semver> {
       return "latest";
     }
 
+    @Override
+    public StringBuilder appendTo(final StringBuilder buffer) {
+      return buffer.append("latest");
+    }
+
     @Override
     public Type type() {
       return Type.LATEST;
@@ -106,6 +127,16 @@ public abstract class Semver implements Comparable<Semver> {
     }
   };
 
+  /**
+   * The cache in front of {@link #create(String)}, if any.
+   */
+  private static volatile SemverCache cache;
+
+  /**
+   * The instrumentation callbacks.
+   */
+  private static volatile SemverMetrics metrics = loadMetrics();
+
   /**
    * Match any version.
    */
@@ -125,11 +156,21 @@ public abstract class Semver implements Comparable<Semver> {
       return "*";
     }
 
+    @Override
+    public StringBuilder appendTo(final StringBuilder buffer) {
+      return buffer.append('*');
+    }
+
     @Override
     public Type type() {
       return Type.ANY;
     }
 
+    @Override
+    IntervalSet intervals() {
+      return IntervalSet.ALL;
+    }
+
     @Override
     public boolean isStatic() {
       return true;
@@ -155,10 +196,318 @@ public abstract class Semver implements Comparable<Semver> {
   @Override
   public abstract int compareTo(Semver expr);
 
+  /**
+   * Compile this expression into a normalized, sorted union of disjoint version intervals.
+   * Matching a compiled expression is a binary search over the interval bounds, which pays off
+   * for expressions evaluated many times. Compiled expressions are immutable and keep the text and
+   * type of the original one.
+   *
+   * @return A compiled expression, or this expression if it can't be compiled (URLs) or matching
+   *         it is already as cheap (versions).
+   */
+  public Semver compile() {
+    return this;
+  }
+
+  /**
+   * Find the highest version that satisfies this expression.
+   *
+   * @param candidates The candidate versions. Required.
+   * @return The highest version that satisfies this expression or null.
+   */
+  public Semver maxSatisfying(final Collection<? extends Semver> candidates) {
+    return satisfying(candidates, 1);
+  }
+
+  /**
+   * Find the lowest version that satisfies this expression.
+   *
+   * @param candidates The candidate versions. Required.
+   * @return The lowest version that satisfies this expression or null.
+   */
+  public Semver minSatisfying(final Collection<? extends Semver> candidates) {
+    return satisfying(candidates, -1);
+  }
+
+  /**
+   * Find the highest version that satisfies this expression. Uses a binary search on the bounds
+   * of the expression, see {@link #compile()}.
+   *
+   * @param sorted The candidate versions in ascending order. Required.
+   * @return The highest version that satisfies this expression or null.
+   * @throws IllegalArgumentException If a candidate isn't a version.
+   */
+  public Semver maxSatisfying(final Semver[] sorted) {
+    checkVersions(sorted);
+    IntervalSet intervals = intervals();
+    if (intervals != null) {
+      int i = intervals.max(sorted, 0, sorted.length);
+      return i < 0 ? null : sorted[i];
+    }
+    for (int i = sorted.length - 1; i >= 0; i--) {
+      if (matches(sorted[i])) {
+        return sorted[i];
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Find the lowest version that satisfies this expression. Uses a binary search on the bounds of
+   * the expression, see {@link #compile()}.
+   *
+   * @param sorted The candidate versions in ascending order. Required.
+   * @return The lowest version that satisfies this expression or null.
+   * @throws IllegalArgumentException If a candidate isn't a version.
+   */
+  public Semver minSatisfying(final Semver[] sorted) {
+    checkVersions(sorted);
+    IntervalSet intervals = intervals();
+    if (intervals != null) {
+      int i = intervals.min(sorted, 0, sorted.length);
+      return i < 0 ? null : sorted[i];
+    }
+    for (Semver candidate : sorted) {
+      if (matches(candidate)) {
+        return candidate;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Check the sorted candidates are all versions, the binary search compares them as such.
+   *
+   * @param sorted The candidate versions.
+   */
+  private static void checkVersions(final Semver[] sorted) {
+    notNull(sorted, "The candidates are required.");
+    for (Semver candidate : sorted) {
+      isTrue(candidate instanceof Version, "Not a version: %s", candidate);
+    }
+  }
+
+  /**
+   * Scan the candidates for the highest or lowest version that satisfies this expression.
+   *
+   * @param candidates The candidate versions. Required.
+   * @param sign 1 for the highest version, -1 for the lowest.
+   * @return The matching version or null.
+   */
+  private Semver satisfying(final Collection<? extends Semver> candidates, final int sign) {
+    notNull(candidates, "The candidates are required.");
+    Semver expr = compile();
+    Semver result = null;
+    for (Semver candidate : candidates) {
+      if (expr.matches(candidate) && (result == null || candidate.compareTo(result) * sign > 0)) {
+        result = candidate;
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Parse the candidates and keep the ones that satisfy this expression. Each candidate is
+   * parsed once and matched against the {@link #compile() compiled} expression, so it works well
+   * on parallel streams.
+   *
+   * <pre>
+   * List&lt;Semver&gt; matches = Semver.create("~1.2").filter(lines.parallel())
+   *     .collect(Collectors.toList());
+   * </pre>
+   *
+   * @param candidates The candidate versions. Required.
+   * @return The candidates that satisfy this expression.
+   */
+  public Stream<Semver> filter(final Stream<String> candidates) {
+    notNull(candidates, "The candidates are required.");
+    Semver expr = compile();
+    return candidates.map(Semver::create).filter(expr::matches);
+  }
+
+  /**
+   * Collect the <code>n</code> highest versions that satisfy this expression, from newest to
+   * oldest. Each thread keeps a bounded heap, so it runs in <code>O(size * log(n))</code> and
+   * scales on parallel streams.
+   *
+   * <pre>
+   * List&lt;Semver&gt; latest = Semver.stream(versions).parallel()
+   *     .collect(Semver.create("&gt;=1.0.0").top(3));
+   * </pre>
+   *
+   * @param n Max number of versions to collect. Must be positive.
+   * @return A collector of the <code>n</code> highest matching versions.
+   */
+  public Collector<Semver, ?, List<Semver>> top(final int n) {
+    isTrue(n > 0, "The number of versions must be positive: %s", n);
+    Semver expr = compile();
+    return Collector.of(
+        () -> new PriorityQueue<Semver>(Math.min(n, 16)),
+        (heap, candidate) -> {
+          if (expr.matches(candidate)) {
+            offer(heap, candidate, n);
+          }
+        },
+        (left, right) -> {
+          for (Semver candidate : right) {
+            offer(left, candidate, n);
+          }
+          return left;
+        },
+        heap -> {
+          List<Semver> result = new ArrayList<Semver>(heap);
+          result.sort(Comparator.reverseOrder());
+          return result;
+        });
+  }
+
+  /**
+   * Add a candidate to a min-heap of at most <code>n</code> versions.
+   *
+   * @param heap The heap.
+   * @param candidate The candidate version.
+   * @param n Max size of the heap.
+   */
+  private static void offer(final PriorityQueue<Semver> heap, final Semver candidate,
+      final int n) {
+    if (heap.size() < n) {
+      heap.offer(candidate);
+    } else if (candidate.compareTo(heap.peek()) > 0) {
+      heap.poll();
+      heap.offer(candidate);
+    }
+  }
+
+  /**
+   * Creates a stream of versions. Elements are parsed once, as they are consumed, and the stream
+   * splits evenly when made parallel.
+   *
+   * @param versions The version strings. Required.
+   * @return A stream of versions.
+   */
+  public static Stream<Semver> stream(final String... versions) {
+    notNull(versions, "The versions are required.");
+    return Arrays.stream(versions).map(Semver::create);
+  }
+
+  /**
+   * Creates an expression that matches the versions matched by both this expression and the
+   * given one. The result is computed on the bounds of the expressions, see {@link #compile()},
+   * no version is enumerated.
+   *
+   * <pre>
+   * Semver.create("&gt;=1.2.0 &lt;2.0.0").intersect(Semver.create("~1.5")); // &gt;=1.5.0 &lt;2.0.0
+   * </pre>
+   *
+   * @param expr An expression. Required.
+   * @return The intersection of both expressions.
+   * @throws UnsupportedOperationException If any of the expressions isn't a version range, like
+   *         URLs or {@link #LATEST}.
+   */
+  public Semver intersect(final Semver expr) {
+    return ranges(this).intersect(ranges(expr));
+  }
+
+  /**
+   * Creates an expression that matches the versions matched by this expression or the given one.
+   *
+   * @param expr An expression. Required.
+   * @return The union of both expressions.
+   * @throws UnsupportedOperationException If any of the expressions isn't a version range, like
+   *         URLs or {@link #LATEST}.
+   */
+  public Semver union(final Semver expr) {
+    return ranges(this).union(ranges(expr));
+  }
+
+  /**
+   * Creates an expression that matches the versions not matched by this expression.
+   *
+   * @return The complement of this expression.
+   * @throws UnsupportedOperationException If this expression isn't a version range, like URLs or
+   *         {@link #LATEST}.
+   */
+  public Semver complement() {
+    return ranges(this).complement();
+  }
+
+  /**
+   * True if every version matched by this expression is matched by the given one too.
+   *
+   * @param expr An expression. Required.
+   * @return True if this expression is a subset of the given one.
+   * @throws UnsupportedOperationException If any of the expressions isn't a version range, like
+   *         URLs or {@link #LATEST}.
+   */
+  public boolean isSubsetOf(final Semver expr) {
+    return ranges(this).intersect(ranges(expr).complement()).isEmpty();
+  }
+
+  /**
+   * True if at least one version satisfies this expression. Conflicting constraints like
+   * <code>&gt;2.0.0 &lt;1.0.0</code> are never satisfiable.
+   *
+   * @return True if at least one version satisfies this expression.
+   * @throws UnsupportedOperationException If this expression isn't a version range, like URLs or
+   *         {@link #LATEST}.
+   */
+  public boolean isSatisfiable() {
+    return !ranges(this).isEmpty();
+  }
+
+  /**
+   * The intervals of an expression or fail if it can't be expressed as intervals.
+   *
+   * @param expr An expression. Required.
+   * @return The intervals of the expression.
+   */
+  private static IntervalSet ranges(final Semver expr) {
+    notNull(expr, "The expression is required.");
+    IntervalSet intervals = expr.intervals();
+    if (intervals == null) {
+      throw new UnsupportedOperationException("Not a version range: " + expr);
+    }
+    return intervals;
+  }
+
+  /**
+   * The versions matched by this expression as a set of intervals.
+   *
+   * @return The versions matched by this expression or null if they can't be expressed as
+   *         intervals.
+   */
+  IntervalSet intervals() {
+    return null;
+  }
+
   public abstract boolean isStatic();
 
   public abstract String text();
 
+  /**
+   * Append the text of this expression to a buffer, without creating intermediate strings.
+   *
+   * @param buffer The buffer.
+   * @return The buffer.
+   */
+  public StringBuilder appendTo(final StringBuilder buffer) {
+    return buffer.append(text());
+  }
+
+  /**
+   * Append the text of this expression, like to a {@link java.io.Writer}.
+   *
+   * @param out The output.
+   * @return The output.
+   * @throws IOException If the output fails.
+   */
+  public Appendable appendTo(final Appendable out) throws IOException {
+    if (out instanceof StringBuilder) {
+      return appendTo((StringBuilder) out);
+    }
+    return out.append(text());
+  }
+
   public abstract Type type();
 
   @Override
@@ -173,6 +522,162 @@ public abstract class Semver implements Comparable<Semver> {
    * @return An expression.
    */
   public static Semver create(final String version) {
+    SemverCache cache = Semver.cache;
+    return cache == null ? new SemverParser(version).parse() : cache.create(version);
+  }
+
+  /**
+   * Parse a version expression without copying the input. A {@link String} goes through the
+   * {@link #setCache(SemverCache) cache}, any other sequence is parsed directly.
+   *
+   * @param version A version expression.
+   * @return An expression.
+   */
+  public static Semver create(final CharSequence version) {
+    if (version instanceof String) {
+      return create((String) version);
+    }
     return new SemverParser(version).parse();
   }
+
+  /**
+   * Parse a version expression from a region of a char array, without copying it.
+   *
+   * @param version The characters.
+   * @param offset The start of the region.
+   * @param length The length of the region.
+   * @return An expression.
+   */
+  public static Semver create(final char[] version, final int offset, final int length) {
+    notNull(version, "The input is required.");
+    return new SemverParser(CharBuffer.wrap(version, offset, length)).parse();
+  }
+
+  /**
+   * Parse a version expression from the remaining bytes of an ASCII or UTF-8 buffer. ASCII input
+   * is read in place; the buffer position isn't modified.
+   *
+   * @param version The bytes.
+   * @return An expression.
+   */
+  public static Semver create(final ByteBuffer version) {
+    notNull(version, "The input is required.");
+    return new SemverParser(AsciiCharSequence.of(version)).parse();
+  }
+
+  /**
+   * Parse a version expression without throwing on invalid input: no exception is created, the
+   * result reports the error position and the expected tokens instead. The cache isn't used.
+   *
+   * @param version A version expression.
+   * @return The expression or the error.
+   */
+  public static ParseResult tryParse(final CharSequence version) {
+    notNull(version, "The input is required.");
+    return new SemverParser(version).tryParse();
+  }
+
+  /**
+   * Validate many version expressions at once, without creating exceptions.
+   *
+   * @param versions The version expressions. Required, null elements are invalid.
+   * @return The indexes of the valid expressions.
+   */
+  public static BitSet validate(final CharSequence[] versions) {
+    notNull(versions, "The versions are required.");
+    BitSet valid = new BitSet(versions.length);
+    for (int i = 0; i < versions.length; i++) {
+      if (versions[i] != null && new SemverParser(versions[i]).validate()) {
+        valid.set(i);
+      }
+    }
+    return valid;
+  }
+
+  /**
+   * Sort version strings from newest to oldest, in the same order as {@link #DESC}. Unlike
+   * {@link #DESC}, every element is parsed once.
+   *
+   * @param versions The version strings to sort. Required.
+   */
+  public static void sortDescending(final List<String> versions) {
+    SortKey.sort(notNull(versions, "The versions are required."), true);
+  }
+
+  /**
+   * Sort version strings from oldest to newest, the reverse of {@link #DESC}. Every element is
+   * parsed once.
+   *
+   * @param versions The version strings to sort. Required.
+   */
+  public static void sortAscending(final List<String> versions) {
+    SortKey.sort(notNull(versions, "The versions are required."), false);
+  }
+
+  /**
+   * Sort version strings from newest to oldest, in the same order as {@link #DESC}. Elements are
+   * parsed and sorted in parallel, use it for very large arrays.
+   *
+   * @param versions The version strings to sort. Required.
+   */
+  public static void parallelSortDescending(final String[] versions) {
+    SortKey.parallelSort(notNull(versions, "The versions are required."), true);
+  }
+
+  /**
+   * Sort version strings from oldest to newest, the reverse of {@link #DESC}. Elements are parsed
+   * and sorted in parallel, use it for very large arrays.
+   *
+   * @param versions The version strings to sort. Required.
+   */
+  public static void parallelSortAscending(final String[] versions) {
+    SortKey.parallelSort(notNull(versions, "The versions are required."), false);
+  }
+
+  /**
+   * Install a cache in front of {@link #create(String)}. Parsed expressions are immutable so they
+   * can be shared.
+   *
+   * @param cache The cache to use or null to disable caching.
+   */
+  public static void setCache(final SemverCache cache) {
+    Semver.cache = cache;
+  }
+
+  /**
+   * The cache in front of {@link #create(String)}.
+   *
+   * @return The cache in front of {@link #create(String)} or null if caching is off.
+   */
+  public static SemverCache getCache() {
+    return cache;
+  }
+
+  /**
+   * Install instrumentation callbacks, see {@link SemverMetrics}.
+   *
+   * @param metrics The callbacks or null to go back to {@link SemverMetrics#NOOP}.
+   */
+  public static void setMetrics(final SemverMetrics metrics) {
+    Semver.metrics = metrics == null ? SemverMetrics.NOOP : metrics;
+  }
+
+  /**
+   * The instrumentation callbacks.
+   *
+   * @return The instrumentation callbacks, never null.
+   */
+  public static SemverMetrics getMetrics() {
+    return metrics;
+  }
+
+  /**
+   * The first {@link SemverMetrics} service provider found on the classpath.
+   *
+   * @return The first service provider or {@link SemverMetrics#NOOP}.
+   */
+  private static SemverMetrics loadMetrics() {
+    Iterator<SemverMetrics> providers = ServiceLoader.load(SemverMetrics.class).iterator();
+    return providers.hasNext() ? providers.next() : SemverMetrics.NOOP;
+  }
 }
@@ -0,0 +1,247 @@
+/**
+ * Copyright (c) 2013 Edgar Espina
+ *
+ * This file is part of amd4j (https://github.com/jknack/amd4j)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jknack.semver;
+
+import static org.apache.commons.lang3.Validate.isTrue;
+import static org.apache.commons.lang3.Validate.notNull;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A thread-safe, size-bounded cache of parsed expressions. Entries are evicted in least recently
+ * used order. The cache is split in segments, each one with its own lock and its own share of the
+ * capacity, so eviction order is per segment.
+ * <p>
+ * A cache can be used on its own:
+ * </p>
+ *
+ * <pre>
+ * SemverCache cache = new SemverCache(1024);
+ * Semver semver = cache.create("~1.2.3");
+ * </pre>
+ * <p>
+ * or installed in front of {@link Semver#create(String)}:
+ * </p>
+ *
+ * <pre>
+ * Semver.setCache(new SemverCache(1024));
+ * </pre>
+ *
+ * Invalid expressions are never cached.
+ *
+ * @author edgar.espina
+ * @since 0.1.1
+ */
+public final class SemverCache {
+
+  /**
+   * A segment of the cache.
+   *
+   * @author edgar.espina
+   */
+  @SuppressWarnings("serial")
+  private final class Segment extends LinkedHashMap<String, Semver> {
+
+    /**
+     * The max number of entries.
+     */
+    private final int capacity;
+
+    /**
+     * Creates a new segment.
+     *
+     * @param capacity The max number of entries.
+     */
+    public Segment(final int capacity) {
+      super(16, 0.75f, true);
+      this.capacity = capacity;
+    }
+
+    @Override
+    protected boolean removeEldestEntry(final Map.Entry<String, Semver> eldest) {
+      if (size() > capacity) {
+        evictions.incrementAndGet();
+        Semver.getMetrics().cacheEviction();
+        return true;
+      }
+      return false;
+    }
+  }
+
+  /**
+   * The max number of segments.
+   */
+  private static final int MAX_SEGMENTS = 16;
+
+  /**
+   * The cache segments.
+   */
+  private final Segment[] segments;
+
+  /**
+   * The max number of entries.
+   */
+  private final int capacity;
+
+  /**
+   * Number of hits.
+   */
+  private final AtomicLong hits = new AtomicLong();
+
+  /**
+   * Number of misses.
+   */
+  private final AtomicLong misses = new AtomicLong();
+
+  /**
+   * Number of evictions.
+   */
+  private final AtomicLong evictions = new AtomicLong();
+
+  /**
+   * Creates a new {@link SemverCache}.
+   *
+   * @param capacity The max number of entries. Must be positive.
+   */
+  public SemverCache(final int capacity) {
+    isTrue(capacity > 0, "The capacity must be positive: %s", capacity);
+    this.capacity = capacity;
+    int count = Math.min(MAX_SEGMENTS, Integer.highestOneBit(capacity));
+    segments = new Segment[count];
+    for (int i = 0; i < count; i++) {
+      // spread the remainder over the first segments
+      segments[i] = new Segment(capacity / count + (i < capacity % count ? 1 : 0));
+    }
+  }
+
+  /**
+   * Get a cached expression or parse and cache it.
+   *
+   * @param version A version expression. Required.
+   * @return An expression.
+   */
+  public Semver create(final String version) {
+    notNull(version, "The input is required.");
+    Segment segment = segmentFor(version);
+    Semver semver;
+    synchronized (segment) {
+      semver = segment.get(version);
+    }
+    if (semver != null) {
+      hits.incrementAndGet();
+      Semver.getMetrics().cacheHit();
+      return semver;
+    }
+    misses.incrementAndGet();
+    Semver.getMetrics().cacheMiss();
+    // parse outside the lock, a concurrent miss on the same key keeps the first result
+    semver = new SemverParser(version).parse();
+    synchronized (segment) {
+      Semver existing = segment.get(version);
+      if (existing != null) {
+        return existing;
+      }
+      segment.put(version, semver);
+    }
+    return semver;
+  }
+
+  /**
+   * Remove all the entries. Statistics are kept.
+   */
+  public void clear() {
+    for (Segment segment : segments) {
+      synchronized (segment) {
+        segment.clear();
+      }
+    }
+  }
+
+  /**
+   * The number of cached entries.
+   *
+   * @return The number of cached entries.
+   */
+  public int size() {
+    int size = 0;
+    for (Segment segment : segments) {
+      synchronized (segment) {
+        size += segment.size();
+      }
+    }
+    return size;
+  }
+
+  /**
+   * The max number of entries.
+   *
+   * @return The max number of entries.
+   */
+  public int capacity() {
+    return capacity;
+  }
+
+  /**
+   * Number of lookups served from the cache.
+   *
+   * @return Number of lookups served from the cache.
+   */
+  public long hits() {
+    return hits.get();
+  }
+
+  /**
+   * Number of lookups that required parsing.
+   *
+   * @return Number of lookups that required parsing.
+   */
+  public long misses() {
+    return misses.get();
+  }
+
+  /**
+   * Number of entries removed to make room for new ones.
+   *
+   * @return Number of entries removed to make room for new ones.
+   */
+  public long evictions() {
+    return evictions.get();
+  }
+
+  @Override
+  public String toString() {
+    return "SemverCache[size=" + size() + ", capacity=" + capacity + ", hits=" + hits()
+        + ", misses=" + misses() + ", evictions=" + evictions() + "]";
+  }
+
+  /**
+   * Find the segment for the given key.
+   *
+   * @param key The key.
+   * @return The segment for the given key.
+   */
+  private Segment segmentFor(final String key) {
+    int h = key.hashCode();
+    // spread the high bits, the segment count is a power of two
+    h ^= (h >>> 20) ^ (h >>> 12);
+    h ^= (h >>> 7) ^ (h >>> 4);
+    return segments[h & (segments.length - 1)];
+  }
+}
@@ -0,0 +1,113 @@
+/**
+ * Copyright (c) 2013 Edgar Espina
+ *
+ * This file is part of amd4j (https://github.com/jknack/amd4j)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jknack.semver;
+
+/**
+ * Instrumentation callbacks. Every method does nothing by default, implement the ones you need
+ * and bridge them to your metrics registry, or use {@link RecordingSemverMetrics}.
+ * <p>
+ * The active instance is set with {@link Semver#setMetrics(SemverMetrics)}. If none is set, the
+ * first {@link java.util.ServiceLoader service provider} of this interface is used, otherwise
+ * {@link #NOOP}. With {@link #NOOP} installed nothing is measured: parsing doesn't even read the
+ * clock.
+ * <p>
+ * Callbacks run on the calling thread and must be thread-safe and fast.
+ *
+ * @author edgar.espina
+ * @since 0.1.1
+ */
+public interface SemverMetrics {
+
+  /**
+   * Why an input couldn't be parsed.
+   */
+  enum Failure {
+    /**
+     * Unexpected character.
+     */
+    SYNTAX,
+
+    /**
+     * A version number too large for an int.
+     */
+    NUMBER,
+
+    /**
+     * A malformed URL expression.
+     */
+    URL
+  }
+
+  /**
+   * Report nothing.
+   */
+  SemverMetrics NOOP = new SemverMetrics() {
+    @Override
+    public String toString() {
+      return "SemverMetrics.NOOP";
+    }
+  };
+
+  /**
+   * An input was parsed.
+   *
+   * @param type The type of the expression.
+   * @param nanos Elapsed time in nanoseconds.
+   */
+  default void parsed(final Semver.Type type, final long nanos) {
+  }
+
+  /**
+   * An input couldn't be parsed.
+   *
+   * @param failure Why it couldn't be parsed.
+   * @param nanos Elapsed time in nanoseconds.
+   */
+  default void parseFailed(final Failure failure, final long nanos) {
+  }
+
+  /**
+   * A version string was matched by {@link Semver#matches(String)}. Only string matches are
+   * reported: {@link Semver#matches(Semver)}, compiled expressions and the bulk queries like
+   * {@link Semver#maxSatisfying(java.util.Collection)}, {@link VersionIndex} or
+   * {@link VersionStore} don't call back, so they stay free of instrumentation overhead.
+   *
+   * @param type The type of the expression.
+   * @param matches The result.
+   */
+  default void stringMatched(final Semver.Type type, final boolean matches) {
+  }
+
+  /**
+   * The {@link SemverCache} had the expression.
+   */
+  default void cacheHit() {
+  }
+
+  /**
+   * The {@link SemverCache} didn't have the expression.
+   */
+  default void cacheMiss() {
+  }
+
+  /**
+   * The {@link SemverCache} dropped its least recently used expression.
+   */
+  default void cacheEviction() {
+  }
+}
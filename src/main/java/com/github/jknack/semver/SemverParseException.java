@@ -0,0 +1,58 @@
+/**
+ * Copyright (c) 2013 Edgar Espina
+ *
+ * This file is part of amd4j (https://github.com/jknack/amd4j)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jknack.semver;
+
+/**
+ * Thrown by {@link Semver#create(CharSequence)} and {@link ParseResult#get()} on a syntax error.
+ * It reports the offset where the error was found, see {@link #getPosition()}.
+ *
+ * @author edgar.espina
+ * @since 0.1.1
+ */
+public class SemverParseException extends IllegalArgumentException {
+
+  /**
+   * Default serial.
+   */
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * Offset of the offending character in the parsed input.
+   */
+  private final int position;
+
+  /**
+   * Creates a new {@link SemverParseException}.
+   *
+   * @param message The error message.
+   * @param position Offset of the offending character in the parsed input.
+   */
+  public SemverParseException(final String message, final int position) {
+    super(message);
+    this.position = position;
+  }
+
+  /**
+   * Offset of the offending character in the parsed input.
+   *
+   * @return Offset of the offending character in the parsed input.
+   */
+  public int getPosition() {
+    return position;
+  }
+}
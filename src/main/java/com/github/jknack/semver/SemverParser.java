@@ -17,59 +17,236 @@
  */
 package com.github.jknack.semver;
 
-import static org.apache.commons.lang3.StringUtils.isEmpty;
 import static org.apache.commons.lang3.Validate.notNull;
 
-import org.apache.commons.lang3.StringUtils;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.github.jknack.semver.SemverMetrics.Failure;
 
 class SemverParser {
 
-  private static abstract class Matcher {
-    public abstract boolean match(char ch);
+  /**
+   * Unwind the parser on the first error. Shared and without stack trace: the error itself is
+   * recorded by the parser, see {@link SemverParser#failure()}.
+   *
+   * @author edgar.espina
+   */
+  private static final class Abort extends RuntimeException {
+
+    /**
+     * Default serial.
+     */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Creates a new {@link Abort}.
+     */
+    private Abort() {
+      super(null, null, false, false);
+    }
   }
 
-  private static final Matcher PRE_RELEASE_OR_BUILD_NUMBER = new Matcher() {
-    @Override
-    public boolean match(final char ch) {
-      return firstOf(eq('-'), eq('.'), range('0', '9'), range('a', 'z'), range('A', 'Z')).match(ch);
+  /**
+   * The shared abort signal.
+   */
+  private static final Abort ABORT = new Abort();
+
+  /**
+   * Character class: white space.
+   */
+  private static final int WS = 1;
+
+  /**
+   * Character class: a version number, 0-9 or x.
+   */
+  private static final int NUMBER = 2;
+
+  /**
+   * Character class: a pre-release or build number, 0-9, a-z, A-Z, '-' or '.'.
+   */
+  private static final int IDENTIFIER = 4;
+
+  /**
+   * Character classes of the ASCII table.
+   */
+  private static final byte[] CHARS = new byte[128];
+
+  static {
+    for (char ch = 0; ch < CHARS.length; ch++) {
+      int type = 0;
+      if (Character.isWhitespace(ch)) {
+        type |= WS;
+      }
+      if (ch >= '0' && ch <= '9' || ch == 'x' || ch == 'X') {
+        type |= NUMBER;
+      }
+      if (ch >= '0' && ch <= '9' || ch >= 'a' && ch <= 'z' || ch >= 'A' && ch <= 'Z'
+          || ch == '-' || ch == '.') {
+        type |= IDENTIFIER;
+      }
+      CHARS[ch] = (byte) type;
     }
-  };
+  }
+
+  /**
+   * Prefix of URL expressions.
+   */
+  private static final String[] PROTOCOLS = {"https://", "http://", "git+shh://", "git+https://",
+      "git+http://", "git://" };
 
   /**
    * The End-of-Input non-character.
    */
   public static final char EOF = '\uFFFF';
 
-  private String input;
+  private final CharSequence input;
+
+  /**
+   * First non-white offset of the input.
+   */
+  private final int start;
+
+  /**
+   * End offset of the input, trailing white spaces excluded.
+   */
+  private final int length;
 
   private int position;
 
-  public SemverParser(final String input) {
-    this.input = notNull(input, "The input is required.").trim();
+  /**
+   * The error category or null.
+   */
+  private Failure failure;
+
+  /**
+   * Offset of the error.
+   */
+  private int errorAt;
+
+  /**
+   * Start of the offending number or URL.
+   */
+  private int errorFrom;
+
+  /**
+   * End of the offending number or URL.
+   */
+  private int errorTo;
+
+  /**
+   * The expected tokens of a syntax error.
+   */
+  private String expected;
+
+  /**
+   * The reason of a URL error.
+   */
+  private String reason;
+
+  public SemverParser(final CharSequence input) {
+    this.input = notNull(input, "The input is required.");
+    // trim without copying the input
+    int start = 0;
+    int end = input.length();
+    while (start < end && input.charAt(start) <= ' ') {
+      start++;
+    }
+    while (end > start && input.charAt(end - 1) <= ' ') {
+      end--;
+    }
+    this.start = start;
+    this.length = end;
+    this.position = start;
   }
 
   public Semver parse() {
-    if (input.length() == 0) {
+    Semver result = run();
+    if (result == null) {
+      throw failure().exception();
+    }
+    return result;
+  }
+
+  /**
+   * Parse without throwing on invalid input.
+   *
+   * @return The expression or the error.
+   */
+  public ParseResult tryParse() {
+    Semver result = run();
+    return result == null ? failure() : ParseResult.success(result);
+  }
+
+  /**
+   * True if the input is a valid expression.
+   *
+   * @return True if the input is a valid expression.
+   */
+  public boolean validate() {
+    return run() != null;
+  }
+
+  /**
+   * Parse and report to the metrics.
+   *
+   * @return The expression or null on error.
+   */
+  private Semver run() {
+    SemverMetrics metrics = Semver.getMetrics();
+    if (metrics == SemverMetrics.NOOP) {
+      return parseExpression();
+    }
+    long start = System.nanoTime();
+    Semver result = parseExpression();
+    if (result == null) {
+      metrics.parseFailed(failure, System.nanoTime() - start);
+    } else {
+      metrics.parsed(result.type(), System.nanoTime() - start);
+    }
+    return result;
+  }
+
+  /**
+   * The recorded error.
+   *
+   * @return The recorded error.
+   */
+  private ParseResult failure() {
+    return ParseResult.failure(input.toString(), failure, errorAt, ch(errorAt), errorFrom,
+        errorTo, failure == Failure.URL ? reason : expected);
+  }
+
+  private Semver parseExpression() {
+    if (start == length) {
       return Semver.ANY;
     }
-    return expression();
+    try {
+      return expression();
+    } catch (Abort abort) {
+      return null;
+    }
   }
 
   private PrefixOperator operator() {
-    if (match('=')) {
-      return RelationalOp.eq();
-    } else if (match("<=")) {
-      return RelationalOp.ltEq();
-    } else if (match(">=")) {
-      return RelationalOp.gtEq();
-    } else if (match("<")) {
-      return RelationalOp.lt();
-    } else if (match(">")) {
-      return RelationalOp.gt();
-    } else if (match('~')) {
-      return Range.tilde();
+    switch (ch()) {
+      case '=':
+        consume();
+        return RelationalOp.eq();
+      case '<':
+        consume();
+        return match('=') ? RelationalOp.ltEq() : RelationalOp.lt();
+      case '>':
+        consume();
+        return match('=') ? RelationalOp.gtEq() : RelationalOp.gt();
+      case '~':
+        consume();
+        return Range.tilde();
+      default:
+        return null;
     }
-    return null;
   }
 
   private Semver expression() {
@@ -77,45 +254,75 @@ class SemverParser {
     if (match('*')) {
       return Semver.ANY;
     }
-    // uri version
-    String[] protocols = {"https", "http", "git+shh", "git+https", "git+http", "git" };
-    for (String protocol : protocols) {
-      String prefix = protocol + "://";
-      if (match(prefix)) {
-        return new UrlExpression(prefix + input.substring(position));
+    // uri version: every protocol starts with 'h' or 'g', versions never do
+    char ch = ch();
+    if (ch == 'h' || ch == 'g') {
+      for (String prefix : PROTOCOLS) {
+        if (startsWith(prefix)) {
+          String text = text(position, length);
+          try {
+            return new UrlExpression(text, new URI(text));
+          } catch (URISyntaxException ex) {
+            this.reason = ex.getMessage();
+            throw abort(Failure.URL, position + Math.max(ex.getIndex(), 0), position, length);
+          }
+        }
       }
     }
     Semver result = rangeOrVersion();
-    // check for '||' expression
+    if (eof()) {
+      // normal version
+      return result;
+    }
+    // '||' expression
+    List<Semver> expressions = new ArrayList<Semver>();
+    expressions.add(result);
     while (!eof()) {
-      // drop whites
-      ws();
-      if (match("||")) {
-        Semver right = rangeOrVersion();
-        result = new OrExpression(result, right);
+      if (!match("||")) {
+        throw error("||");
       }
+      expressions.add(rangeOrVersion());
     }
-    // normal version
-    return result;
+    return new OrExpression(expressions.toArray(new Semver[expressions.size()]));
   }
 
   private Semver rangeOrVersion() {
     // drop whites
     ws();
     Semver result = version();
-    String ws = ws();
-    if (!extract(2).equals("||") && (match('-') || ws.length() > 0)) {
+    List<Semver> expressions = null;
+    while (true) {
+      int ws = ws();
+      if (eof() || startsWith("||")) {
+        break;
+      }
+      boolean hyphen = match('-');
+      if (!hyphen && ws == 0) {
+        break;
+      }
       ws();
       Semver right = version();
-      if (result instanceof Version && right instanceof Version) {
-        result = Range.range((Version) result, (Version) right);
+      if (expressions == null) {
+        expressions = new ArrayList<Semver>();
+        expressions.add(result);
+      }
+      int last = expressions.size() - 1;
+      if (hyphen && expressions.get(last) instanceof Version && right instanceof Version) {
+        expressions.set(last, Range.range((Version) expressions.get(last), (Version) right));
       } else {
-        result = new AndExpression(result, right);
+        expressions.add(right);
       }
     }
-    // drop whites
-    ws();
-    return result;
+    if (expressions == null) {
+      return result;
+    }
+    if (expressions.size() == 2 && expressions.get(0) instanceof Version
+        && expressions.get(1) instanceof Version) {
+      // two versions separated by white spaces
+      return Range.range((Version) expressions.get(0), (Version) expressions.get(1));
+    }
+    return expressions.size() == 1 ? expressions.get(0)
+        : new AndExpression(expressions.toArray(new Semver[expressions.size()]));
   }
 
   private boolean eof() {
@@ -144,8 +351,8 @@ class SemverParser {
 
     // patch
     int patch = 0;
-    String[] prerelease = {};
-    String[] buildNumber = {};
+    Identifier[] prerelease = Identifier.NONE;
+    Identifier[] buildNumber = Identifier.NONE;
     if (match('.')) {
       patch = versionNumber("0-9+ or x", true);
       // pre-release number
@@ -154,30 +361,53 @@ class SemverParser {
       buildNumber = preReleaseOrBuildNumber('+');
     }
     int end = position;
-    String text = input.substring(start, end).trim();
-    Version version = new Version(text, major, minor, patch);
-    version.setPreRelease(prerelease);
-    version.setBuildNumber(buildNumber);
-    Semver result = text.contains("x") ? Range.x(version) : version;
-    return operator == null ? result : operator.setExpression(result);
+    String text = text(start, end);
+    Version version = new Version(text, major, minor, patch, prerelease, buildNumber);
+    Semver result = indexOf('x', start, end) >= 0 ? Range.x(version) : version;
+    return operator == null ? result : operator.create(result);
   }
 
-  private String[] preReleaseOrBuildNumber(final char separator) {
+  private Identifier[] preReleaseOrBuildNumber(final char separator) {
     match(separator);
-    String preRelease = match(PRE_RELEASE_OR_BUILD_NUMBER);
-    return isEmpty(preRelease) ? new String[0] : StringUtils.split(preRelease, ".");
+    int start = position;
+    while (is(ch(), IDENTIFIER)) {
+      consume();
+    }
+    return IdentifierTable.split(input, start, position);
   }
 
   private int versionNumber(final String label, final boolean allowX) {
-    String digits = digits(label);
-    if (!allowX && digits.equalsIgnoreCase("x")) {
-      throw error(label, digits.length());
+    int start = position;
+    char ch = ch();
+    while (ch != EOF && (is(ch, NUMBER) || ch >= CHARS.length && Character.isDigit(ch))) {
+      consume();
+      ch = ch();
     }
-    return toNumber(digits);
-  }
-
-  private int toNumber(final String digits) {
-    return digits.equalsIgnoreCase("x") ? 0 : Integer.parseInt(digits);
+    int len = position - start;
+    if (len == 0) {
+      throw error(label);
+    }
+    char first = input.charAt(start);
+    if (len == 1 && (first == 'x' || first == 'X')) {
+      if (!allowX) {
+        throw error(label, len);
+      }
+      return 0;
+    }
+    long value = 0;
+    for (int i = start; i < position; i++) {
+      // non ASCII digits too, like Integer.parseInt
+      ch = input.charAt(i);
+      int digit = ch >= '0' && ch <= '9' ? ch - '0' : Character.digit(ch, 10);
+      if (digit < 0) {
+        throw abort(Failure.NUMBER, start, start, position);
+      }
+      value = value * 10 + digit;
+      if (value > Integer.MAX_VALUE) {
+        throw abort(Failure.NUMBER, start, start, position);
+      }
+    }
+    return (int) value;
   }
 
   private RuntimeException error(final String expected) {
@@ -185,120 +415,125 @@ class SemverParser {
   }
 
   private RuntimeException error(final String expected, final int offset) {
-    char ch = ch(position - offset);
-    return new IllegalArgumentException("found: '" + (ch == EOF ? "eof" : ch) + "', expected: '"
-        + expected + "'");
+    this.expected = expected;
+    return abort(Failure.SYNTAX, position - offset, 0, 0);
   }
 
-  private String digits(final String expected) {
-    String match = match(new Matcher() {
-      @Override
-      public boolean match(final char ch) {
-        return Character.isDigit(ch) || ch == 'x' || ch == 'X';
-      }
-    });
-
-    if (isEmpty(match)) {
-      throw error(expected);
-    }
-    return match;
-  }
-
-  private String match(final Matcher matcher) {
-    char ch = ch();
-    int start = position;
-    while (ch != EOF && matcher.match(ch)) {
-      consume();
-      ch = ch();
-    }
-    int end = position;
-    if (start < end) {
-      return input.substring(start, end);
-    }
-    return "";
+  /**
+   * Record an error.
+   *
+   * @param failure The error category.
+   * @param at Offset of the error.
+   * @param from Start of the offending number or URL.
+   * @param to End of the offending number or URL.
+   * @return The abort signal.
+   */
+  private RuntimeException abort(final Failure failure, final int at, final int from,
+      final int to) {
+    this.failure = failure;
+    this.errorAt = at;
+    this.errorFrom = from;
+    this.errorTo = to;
+    return ABORT;
   }
 
   private boolean match(final char ch) {
-    char la = ch();
-    if (la == ch) {
+    if (ch() == ch) {
       consume();
       return true;
     }
     return false;
   }
 
-  private String extract(final int len) {
-    return input.substring(position, Math.min(len + position, input.length()));
-  }
-
   private boolean match(final String token) {
-    String chunk = extract(token.length());
-    if (token.equals(chunk)) {
+    if (startsWith(token)) {
       consume(token.length());
       return true;
     }
     return false;
   }
 
-  private String ws() {
-    return match(new Matcher() {
-      @Override
-      public boolean match(final char ch) {
-        return Character.isWhitespace(ch);
+  /**
+   * Drop white spaces.
+   *
+   * @return Number of white spaces dropped.
+   */
+  private int ws() {
+    int start = position;
+    char ch = ch();
+    while (ch != EOF && (is(ch, WS) || ch >= CHARS.length && Character.isWhitespace(ch))) {
+      consume();
+      ch = ch();
+    }
+    return position - start;
+  }
+
+  /**
+   * True if the input has the given token at the current position.
+   *
+   * @param token The token.
+   * @return True if the input has the given token at the current position.
+   */
+  private boolean startsWith(final String token) {
+    int len = token.length();
+    if (position + len > length) {
+      return false;
+    }
+    for (int i = 0; i < len; i++) {
+      if (input.charAt(position + i) != token.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Materialize a region of the input.
+   *
+   * @param from The start offset.
+   * @param to The end offset.
+   * @return The text of the region.
+   */
+  private String text(final int from, final int to) {
+    return input.subSequence(from, to).toString();
+  }
+
+  private int indexOf(final char ch, final int start, final int end) {
+    for (int i = start; i < end; i++) {
+      if (input.charAt(i) == ch) {
+        return i;
       }
-    });
+    }
+    return -1;
   }
 
   private char ch() {
-    return ch(position);
+    return position < length ? input.charAt(position) : EOF;
   }
 
   private char ch(final int position) {
-    if (position < 0 || position >= input.length()) {
+    if (position < start || position >= length) {
       return EOF;
     }
     return input.charAt(position);
   }
 
   private void consume() {
-    consume(1);
+    position++;
   }
 
   private void consume(final int count) {
-    for (int i = 0; i < count; i++) {
-      position++;
-    }
-  }
-
-  private static Matcher range(final char lower, final char upper) {
-    return new Matcher() {
-      @Override
-      public boolean match(final char ch) {
-        return ch >= lower && ch <= upper;
-      }
-    };
+    position += count;
   }
 
-  private static Matcher eq(final char ch) {
-    return new Matcher() {
-      @Override
-      public boolean match(final char candidate) {
-        return ch == candidate;
-      }
-    };
-  }
-
-  private static Matcher firstOf(final Matcher... matchers) {
-    return new Matcher() {
-      @Override
-      public boolean match(final char ch) {
-        for (Matcher matcher : matchers) {
-          if (matcher.match(ch)) {
-            return true;
-          }
-        }
-        return false;
-      }
-    };
+  /**
+   * True if the character belongs to the given ASCII class.
+   *
+   * @param ch The character.
+   * @param type The character class.
+   * @return True if the character belongs to the given ASCII class.
+   */
+  private static boolean is(final char ch, final int type) {
+    return ch < CHARS.length && (CHARS[ch] & type) != 0;
   }
 }
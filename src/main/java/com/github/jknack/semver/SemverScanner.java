@@ -0,0 +1,585 @@
+/**
+ * Copyright (c) 2013 Edgar Espina
+ *
+ * This file is part of amd4j (https://github.com/jknack/amd4j)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jknack.semver;
+
+import static org.apache.commons.lang3.Validate.isTrue;
+import static org.apache.commons.lang3.Validate.notNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Parse delimited lists of version expressions in bulk. The input is split into chunks at
+ * delimiter boundaries, chunks are parsed in parallel on a {@link ForkJoinPool} and the results
+ * are merged back in input order. Files are memory-mapped and entries are parsed in place.
+ * Blank entries are skipped, but still count as lines.
+ *
+ * <pre>
+ * SemverScanner.Result result = SemverScanner.lines().scan(Paths.get("versions.txt"));
+ * for (SemverScanner.ParseError error : result.errors()) {
+ *   System.err.println(error);
+ * }
+ * List&lt;Semver&gt; versions = result.versions();
+ * int line = result.line(0); // the line of the first version
+ * </pre>
+ *
+ * @author edgar.espina
+ * @since 0.1.1
+ */
+public final class SemverScanner {
+
+  /**
+   * An entry that couldn't be parsed.
+   *
+   * @author edgar.espina
+   */
+  public static final class ParseError {
+
+    /**
+     * The 1-based entry number.
+     */
+    private final int line;
+
+    /**
+     * The 1-based column of the offending character.
+     */
+    private final int column;
+
+    /**
+     * Offset of the offending character from the start of the input.
+     */
+    private final int offset;
+
+    /**
+     * The entry text.
+     */
+    private final String text;
+
+    /**
+     * The error message.
+     */
+    private final String message;
+
+    /**
+     * Creates a new {@link ParseError}.
+     *
+     * @param line The 1-based entry number.
+     * @param column The 1-based column of the offending character.
+     * @param offset Offset of the offending character from the start of the input.
+     * @param text The entry text.
+     * @param message The error message.
+     */
+    private ParseError(final int line, final int column, final int offset, final String text,
+        final String message) {
+      this.line = line;
+      this.column = column;
+      this.offset = offset;
+      this.text = text;
+      this.message = message;
+    }
+
+    /**
+     * The 1-based entry number, the line number for newline delimited input.
+     *
+     * @return The 1-based entry number.
+     */
+    public int getLine() {
+      return line;
+    }
+
+    /**
+     * The 1-based column of the offending character within the entry.
+     *
+     * @return The 1-based column of the offending character.
+     */
+    public int getColumn() {
+      return column;
+    }
+
+    /**
+     * Offset of the offending character from the start of the input, in chars for text and in
+     * bytes for binary input. Non-ASCII entries are decoded first, so the offset of an error
+     * after a multi-byte character is approximate.
+     *
+     * @return Offset of the offending character.
+     */
+    public int getOffset() {
+      return offset;
+    }
+
+    /**
+     * The entry text, without leading and trailing white spaces.
+     *
+     * @return The entry text.
+     */
+    public String getText() {
+      return text;
+    }
+
+    /**
+     * The error message.
+     *
+     * @return The error message.
+     */
+    public String getMessage() {
+      return message;
+    }
+
+    @Override
+    public String toString() {
+      return line + ":" + column + ": " + message;
+    }
+  }
+
+  /**
+   * The outcome of a scan.
+   *
+   * @author edgar.espina
+   */
+  public static final class Result {
+
+    /**
+     * The parsed expressions, in input order.
+     */
+    private final List<Semver> versions;
+
+    /**
+     * The 1-based entry number of each parsed expression.
+     */
+    private final int[] lines;
+
+    /**
+     * The errors, in input order.
+     */
+    private final List<ParseError> errors;
+
+    /**
+     * Creates a new {@link Result}.
+     *
+     * @param versions The parsed expressions.
+     * @param lines The 1-based entry number of each parsed expression.
+     * @param errors The errors.
+     */
+    private Result(final List<Semver> versions, final int[] lines,
+        final List<ParseError> errors) {
+      this.versions = Collections.unmodifiableList(versions);
+      this.lines = lines;
+      this.errors = Collections.unmodifiableList(errors);
+    }
+
+    /**
+     * The parsed expressions in input order. Blank entries and entries with errors are excluded,
+     * see {@link #line(int)} for the entry an expression comes from.
+     *
+     * @return The parsed expressions.
+     */
+    public List<Semver> versions() {
+      return versions;
+    }
+
+    /**
+     * The 1-based entry number of a parsed expression, the line number for newline delimited
+     * input.
+     *
+     * @param index Index of the expression in {@link #versions()}.
+     * @return The 1-based entry number.
+     */
+    public int line(final int index) {
+      isTrue(index >= 0 && index < versions.size(), "Index out of bounds: %s", index);
+      return lines[index];
+    }
+
+    /**
+     * The entries that couldn't be parsed, in input order.
+     *
+     * @return The errors.
+     */
+    public List<ParseError> errors() {
+      return errors;
+    }
+
+    /**
+     * True if at least one entry couldn't be parsed.
+     *
+     * @return True if at least one entry couldn't be parsed.
+     */
+    public boolean hasErrors() {
+      return !errors.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+      return versions.size() + " versions, " + errors.size() + " errors";
+    }
+  }
+
+  /**
+   * The results of a contiguous region of the input.
+   *
+   * @author edgar.espina
+   */
+  private static final class Chunk {
+
+    /**
+     * The parsed expressions.
+     */
+    private final List<Semver> versions = new ArrayList<Semver>();
+
+    /**
+     * The entry number of each parsed expression, from 0 relative to the chunk.
+     */
+    private int[] lines = new int[16];
+
+    /**
+     * The errors, numbered from 0 relative to the chunk.
+     */
+    private final List<ParseError> errors = new ArrayList<ParseError>(0);
+
+    /**
+     * Number of entries, blanks included.
+     */
+    private int entries;
+
+    /**
+     * Add a parsed expression.
+     *
+     * @param version The expression.
+     * @param line The entry number, from 0 relative to the chunk.
+     */
+    private void add(final Semver version, final int line) {
+      int size = versions.size();
+      if (size == lines.length) {
+        lines = Arrays.copyOf(lines, size * 2);
+      }
+      lines[size] = line;
+      versions.add(version);
+    }
+  }
+
+  /**
+   * Parse a region of the input, splitting it in halves at delimiter boundaries while it is
+   * larger than the chunk size.
+   *
+   * @author edgar.espina
+   */
+  private static final class Scan extends RecursiveTask<List<Chunk>> {
+
+    /**
+     * Default serial.
+     */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The input.
+     */
+    private final CharSequence input;
+
+    /**
+     * The input bytes or null for text input.
+     */
+    private final ByteBuffer bytes;
+
+    /**
+     * Absolute offset of the input in the bytes.
+     */
+    private final int base;
+
+    /**
+     * The entry delimiter.
+     */
+    private final char delimiter;
+
+    /**
+     * The max size of a chunk.
+     */
+    private final int chunkSize;
+
+    /**
+     * Start of the region, inclusive.
+     */
+    private final int from;
+
+    /**
+     * End of the region, exclusive.
+     */
+    private final int to;
+
+    /**
+     * Creates a new {@link Scan}.
+     *
+     * @param input The input.
+     * @param bytes The input bytes or null for text input.
+     * @param base Absolute offset of the input in the bytes.
+     * @param delimiter The entry delimiter.
+     * @param chunkSize The max size of a chunk.
+     * @param from Start of the region, inclusive.
+     * @param to End of the region, exclusive.
+     */
+    public Scan(final CharSequence input, final ByteBuffer bytes, final int base,
+        final char delimiter, final int chunkSize, final int from, final int to) {
+      this.input = input;
+      this.bytes = bytes;
+      this.base = base;
+      this.delimiter = delimiter;
+      this.chunkSize = chunkSize;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected List<Chunk> compute() {
+      if (to - from > chunkSize) {
+        int mid = next(from + (to - from) / 2);
+        if (mid < to) {
+          Scan left = new Scan(input, bytes, base, delimiter, chunkSize, from, mid);
+          Scan right = new Scan(input, bytes, base, delimiter, chunkSize, mid, to);
+          left.fork();
+          List<Chunk> tail = right.compute();
+          List<Chunk> chunks = left.join();
+          chunks.addAll(tail);
+          return chunks;
+        }
+      }
+      List<Chunk> chunks = new ArrayList<Chunk>();
+      chunks.add(parse());
+      return chunks;
+    }
+
+    /**
+     * Find the start of the entry after the given offset.
+     *
+     * @param offset An offset.
+     * @return The start of the next entry, or the end of the region.
+     */
+    private int next(final int offset) {
+      for (int i = offset; i < to; i++) {
+        if (input.charAt(i) == delimiter) {
+          return i + 1;
+        }
+      }
+      return to;
+    }
+
+    /**
+     * Parse the region sequentially.
+     *
+     * @return The results of the region.
+     */
+    private Chunk parse() {
+      Chunk chunk = new Chunk();
+      int start = from;
+      for (int i = from; i < to; i++) {
+        if (input.charAt(i) == delimiter) {
+          entry(chunk, start, i);
+          start = i + 1;
+        }
+      }
+      if (start < to) {
+        entry(chunk, start, to);
+      }
+      return chunk;
+    }
+
+    /**
+     * Parse a single entry.
+     *
+     * @param chunk The chunk results.
+     * @param start Start of the entry, inclusive.
+     * @param end End of the entry, exclusive.
+     */
+    private void entry(final Chunk chunk, final int start, final int end) {
+      int line = chunk.entries++;
+      int first = start;
+      while (first < end && input.charAt(first) <= ' ') {
+        first++;
+      }
+      if (first == end) {
+        // blank
+        return;
+      }
+      CharSequence entry = bytes == null
+          ? CharBuffer.wrap(input, start, end)
+          : AsciiCharSequence.of(bytes, base + start, end - start);
+      ParseResult result = Semver.tryParse(entry);
+      if (result.isValid()) {
+        chunk.add(result.get(), line);
+      } else {
+        int position = result.getPosition();
+        chunk.errors.add(new ParseError(line, position + 1, start + position,
+            entry.toString().trim(), result.getMessage()));
+      }
+    }
+  }
+
+  /**
+   * Default max size of a chunk, in chars or bytes.
+   */
+  private static final int CHUNK_SIZE = 32 * 1024;
+
+  /**
+   * The entry delimiter.
+   */
+  private final char delimiter;
+
+  /**
+   * The pool or null for the common pool.
+   */
+  private final ForkJoinPool pool;
+
+  /**
+   * The max size of a chunk.
+   */
+  private final int chunkSize;
+
+  /**
+   * Creates a new {@link SemverScanner}.
+   *
+   * @param delimiter The entry delimiter.
+   * @param pool The pool or null for the common pool.
+   * @param chunkSize The max size of a chunk.
+   */
+  private SemverScanner(final char delimiter, final ForkJoinPool pool, final int chunkSize) {
+    this.delimiter = delimiter;
+    this.pool = pool;
+    this.chunkSize = chunkSize;
+  }
+
+  /**
+   * Creates a scanner for one expression per line. A trailing <code>\r</code> is ignored.
+   *
+   * @return A new scanner.
+   */
+  public static SemverScanner lines() {
+    return delimitedBy('\n');
+  }
+
+  /**
+   * Creates a scanner for entries separated by the given character, like <code>,</code> or
+   * <code>\t</code>.
+   *
+   * @param delimiter The entry delimiter.
+   * @return A new scanner.
+   */
+  public static SemverScanner delimitedBy(final char delimiter) {
+    return new SemverScanner(delimiter, null, CHUNK_SIZE);
+  }
+
+  /**
+   * Run on the given pool instead of {@link ForkJoinPool#commonPool()}.
+   *
+   * @param pool The pool.
+   * @return A new scanner.
+   */
+  public SemverScanner pool(final ForkJoinPool pool) {
+    return new SemverScanner(delimiter, notNull(pool, "The pool is required."), chunkSize);
+  }
+
+  /**
+   * Set the max size of a chunk, in chars or bytes. Default is 32k.
+   *
+   * @param chunkSize The max size of a chunk.
+   * @return A new scanner.
+   */
+  public SemverScanner chunkSize(final int chunkSize) {
+    isTrue(chunkSize > 0, "The chunk size must be positive: %s", chunkSize);
+    return new SemverScanner(delimiter, pool, chunkSize);
+  }
+
+  /**
+   * Memory-map and scan an ASCII or UTF-8 file.
+   *
+   * @param path The file.
+   * @return The scan results.
+   * @throws IOException If the file can't be read.
+   */
+  public Result scan(final Path path) throws IOException {
+    notNull(path, "The path is required.");
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      long size = channel.size();
+      isTrue(size <= Integer.MAX_VALUE, "File too large: %s", path);
+      return scan(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+    }
+  }
+
+  /**
+   * Scan the remaining bytes of an ASCII or UTF-8 buffer. The buffer position isn't modified.
+   *
+   * @param input The bytes.
+   * @return The scan results.
+   */
+  public Result scan(final ByteBuffer input) {
+    notNull(input, "The input is required.");
+    isTrue(delimiter < 0x80, "Not an ASCII delimiter: %s", delimiter);
+    int base = input.position();
+    int length = input.remaining();
+    return scan(new Scan(new AsciiCharSequence(input, base, length), input, base, delimiter,
+        chunkSize, 0, length));
+  }
+
+  /**
+   * Scan a character sequence.
+   *
+   * @param input The text.
+   * @return The scan results.
+   */
+  public Result scan(final CharSequence input) {
+    notNull(input, "The input is required.");
+    return scan(new Scan(input, null, 0, delimiter, chunkSize, 0, input.length()));
+  }
+
+  /**
+   * Run a scan and merge the chunks in input order.
+   *
+   * @param scan The scan task.
+   * @return The scan results.
+   */
+  private Result scan(final Scan scan) {
+    ForkJoinPool pool = this.pool == null ? ForkJoinPool.commonPool() : this.pool;
+    List<Chunk> chunks = pool.invoke(scan);
+    int size = 0;
+    for (Chunk chunk : chunks) {
+      size += chunk.versions.size();
+    }
+    List<Semver> versions = new ArrayList<Semver>(size);
+    int[] numbers = new int[size];
+    List<ParseError> errors = new ArrayList<ParseError>();
+    int lines = 0;
+    for (Chunk chunk : chunks) {
+      for (int i = 0; i < chunk.versions.size(); i++) {
+        numbers[versions.size()] = lines + chunk.lines[i] + 1;
+        versions.add(chunk.versions.get(i));
+      }
+      for (ParseError error : chunk.errors) {
+        errors.add(new ParseError(lines + error.line + 1, error.column, error.offset, error.text,
+            error.message));
+      }
+      lines += chunk.entries;
+    }
+    return new Result(versions, numbers, errors);
+  }
+}
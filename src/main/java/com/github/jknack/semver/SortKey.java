@@ -0,0 +1,110 @@
+/**
+ * Copyright (c) 2013 Edgar Espina
+ *
+ * This file is part of amd4j (https://github.com/jknack/amd4j)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jknack.semver;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.ListIterator;
+
+/**
+ * A version string and its parsed expression, so bulk sorts parse every element once.
+ * The natural order is the reverse of {@link Semver#DESC}.
+ *
+ * @author edgar.espina
+ * @since 0.1.1
+ */
+final class SortKey implements Comparable<SortKey> {
+
+  /**
+   * The version string.
+   */
+  private final String text;
+
+  /**
+   * The parsed version.
+   */
+  private final Semver semver;
+
+  /**
+   * Creates a new sort key.
+   *
+   * @param text The version string.
+   */
+  private SortKey(final String text) {
+    this.text = text;
+    this.semver = Semver.create(text);
+  }
+
+  @Override
+  public int compareTo(final SortKey that) {
+    // same rules as Semver.DESC, reversed
+    if (semver == Semver.LATEST) {
+      return that.semver == Semver.LATEST ? 0 : -1;
+    }
+    if (that.semver == Semver.LATEST) {
+      return 1;
+    }
+    return semver.compareTo(that.semver);
+  }
+
+  /**
+   * Sort a list of version strings.
+   *
+   * @param versions The version strings.
+   * @param descending True for {@link Semver#DESC} order.
+   */
+  public static void sort(final List<String> versions, final boolean descending) {
+    SortKey[] keys = new SortKey[versions.size()];
+    int i = 0;
+    for (String version : versions) {
+      keys[i++] = new SortKey(version);
+    }
+    Arrays.sort(keys, order(descending));
+    ListIterator<String> it = versions.listIterator();
+    for (SortKey key : keys) {
+      it.next();
+      it.set(key.text);
+    }
+  }
+
+  /**
+   * Sort an array of version strings, parsing and sorting in parallel.
+   *
+   * @param versions The version strings.
+   * @param descending True for {@link Semver#DESC} order.
+   */
+  public static void parallelSort(final String[] versions, final boolean descending) {
+    SortKey[] keys = new SortKey[versions.length];
+    Arrays.parallelSetAll(keys, i -> new SortKey(versions[i]));
+    Arrays.parallelSort(keys, order(descending));
+    for (int i = 0; i < keys.length; i++) {
+      versions[i] = keys[i].text;
+    }
+  }
+
+  /**
+   * The sort order.
+   *
+   * @param descending True for {@link Semver#DESC} order.
+   * @return The sort order.
+   */
+  private static Comparator<SortKey> order(final boolean descending) {
+    return descending ? Comparator.<SortKey> reverseOrder() : Comparator.<SortKey> naturalOrder();
+  }
+}
@@ -32,9 +32,12 @@
 package com.github.jknack.semver;
 
 import java.net.URI;
+import java.util.Locale;
 
 /**
- * URI expression.
+ * URI expression. The parser creates the {@link URI} up front, so malformed input fails at parse
+ * time. Matching compares the text with a lower case host: host names are case insensitive,
+ * user info, paths, queries and fragments aren't.
  *
  * @author edgar.espina
  * @since 0.0.1
@@ -44,25 +47,55 @@ class UrlExpression extends BaseExpression {
   /**
    * The URI expression.
    */
-  private URI uri;
+  private final String text;
+
+  /**
+   * The text with a lower case host, used for matching.
+   */
+  private final String key;
+
+  /**
+   * The URI.
+   */
+  private final URI uri;
 
   /**
    * Creates a new {@link UrlExpression}.
    *
-   * @param uri The uri expression.
+   * @param text The uri expression.
+   * @param uri The URI.
    */
-  public UrlExpression(final String uri) {
-    this.uri = URI.create(uri);
+  public UrlExpression(final String text, final URI uri) {
+    this.text = text;
+    this.key = key(text);
+    this.uri = uri;
+  }
+
+  /**
+   * The URI.
+   *
+   * @return The URI.
+   */
+  URI uri() {
+    return uri;
   }
 
   @Override
   public String text() {
-    return uri.toString();
+    return text;
+  }
+
+  @Override
+  public StringBuilder appendTo(final StringBuilder buffer) {
+    return buffer.append(text);
   }
 
   @Override
   public boolean matches(final Semver expr) {
-    return uri.toString().equals(expr.toString());
+    if (expr instanceof UrlExpression) {
+      return key.equals(((UrlExpression) expr).key);
+    }
+    return key.equals(expr.text());
   }
 
   @Override
@@ -74,4 +107,31 @@ class UrlExpression extends BaseExpression {
   public Type type() {
     return Type.URL;
   }
+
+  /**
+   * Host names are case insensitive: lower case them.
+   *
+   * @param uri The uri expression.
+   * @return The uri expression with a lower case host.
+   */
+  private static String key(final String uri) {
+    int from = uri.indexOf("://") + 3;
+    int to = from;
+    boolean upper = false;
+    while (to < uri.length() && "/?#".indexOf(uri.charAt(to)) < 0) {
+      char ch = uri.charAt(to);
+      if (ch == '@') {
+        // user info is case sensitive
+        from = to + 1;
+        upper = false;
+      }
+      upper |= ch >= 'A' && ch <= 'Z';
+      to++;
+    }
+    if (!upper) {
+      return uri;
+    }
+    return uri.substring(0, from) + uri.substring(from, to).toLowerCase(Locale.ENGLISH)
+        + uri.substring(to);
+  }
 }
@@ -31,8 +31,9 @@
  */
 package com.github.jknack.semver;
 
+import static org.apache.commons.lang3.Validate.notNull;
+
 import java.util.Arrays;
-import java.util.List;
 
 /**
  * A CommonJS Version representation.
@@ -42,29 +43,70 @@ import java.util.List;
  */
 class Version extends BaseExpression {
 
+  /**
+   * Marks a version that doesn't fit in a packed key.
+   */
+  static final long NO_KEY = -1;
+
+  /**
+   * Max value of a major qualifier in a packed key: 20 bits.
+   */
+  private static final int MAX_MAJOR = (1 << 20) - 1;
+
+  /**
+   * Max value of a minor or incremental qualifier in a packed key: 21 bits.
+   */
+  private static final int MAX_MINOR = (1 << 21) - 1;
+
+  /**
+   * Bit position of the major qualifier in a packed key.
+   */
+  private static final int MAJOR_SHIFT = 43;
+
+  /**
+   * Bit position of the minor qualifier in a packed key.
+   */
+  private static final int MINOR_SHIFT = 22;
+
   /**
    * The major qualifier.
    */
-  private int major;
+  private final int major;
 
   /**
    * The minor qualifier.
    */
-  private int minor;
+  private final int minor;
 
   /**
    * The incremental qualifier.
    */
-  private int incremental;
+  private final int incremental;
 
   /**
    * The text.
    */
-  private String text;
+  private final String text;
 
-  private String[] prerelease = {};
+  /**
+   * The pre-release identifiers.
+   */
+  private final Identifier[] prerelease;
 
-  private String[] buildNumber = {};
+  /**
+   * The build identifiers.
+   */
+  private final Identifier[] buildNumber;
+
+  /**
+   * The packed ordering key or {@link #NO_KEY}. See {@link #pack()}.
+   */
+  private final long key;
+
+  /**
+   * The hash code, consistent with {@link #compareTo(Version)}.
+   */
+  private final int hash;
 
   /**
    * Creates a new version.
@@ -76,16 +118,98 @@ class Version extends BaseExpression {
    */
   public Version(final String text, final int major, final int minor,
       final int incremental) {
+    this(text, major, minor, incremental, Identifier.NONE, Identifier.NONE);
+  }
+
+  /**
+   * Creates a new version.
+   *
+   * @param text The text.
+   * @param major The major qualifier.
+   * @param minor The minor qualifier.
+   * @param incremental The incremental qualifier.
+   * @param prerelease The pre-release identifiers.
+   * @param buildNumber The build identifiers.
+   */
+  public Version(final String text, final int major, final int minor,
+      final int incremental, final Identifier[] prerelease, final Identifier[] buildNumber) {
     this.text = text;
     this.major = major;
     this.minor = minor;
     this.incremental = incremental;
+    this.prerelease = prerelease;
+    this.buildNumber = buildNumber;
+    this.key = pack();
+    this.hash = hash();
   }
 
   /**
-   * Default constructor.
+   * Creates a new version builder.
+   *
+   * @return A new version builder.
    */
-  public Version() {
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Pack major, minor and incremental plus a release flag into a positive long: versions that
+   * differ on any of them compare like their keys. The release flag sorts pre-releases first.
+   *
+   * @return A packed key or {@link #NO_KEY} if a qualifier is too large.
+   */
+  private long pack() {
+    if (major < 0 || major > MAX_MAJOR || minor < 0 || minor > MAX_MINOR
+        || incremental < 0 || incremental > MAX_MINOR) {
+      return NO_KEY;
+    }
+    return (long) major << MAJOR_SHIFT | (long) minor << MINOR_SHIFT | (long) incremental << 1
+        | (prerelease.length == 0 ? 1 : 0);
+  }
+
+  /**
+   * The packed ordering key.
+   *
+   * @return The packed key or {@link #NO_KEY} if a qualifier is too large.
+   */
+  long key() {
+    return key;
+  }
+
+  /**
+   * The packed key of a release version: a version without pre-release and build identifiers.
+   * Release keys compare like their versions.
+   *
+   * @return The packed key or {@link #NO_KEY} if this isn't a release or a qualifier is too large.
+   */
+  long releaseKey() {
+    return prerelease.length == 0 && buildNumber.length == 0 ? key : NO_KEY;
+  }
+
+  /**
+   * Creates a release version from a packed key.
+   *
+   * @param key A key from {@link #releaseKey()}.
+   * @return A new version.
+   */
+  static Version release(final long key) {
+    int major = (int) (key >>> MAJOR_SHIFT);
+    int minor = (int) (key >>> MINOR_SHIFT) & MAX_MINOR;
+    int incremental = (int) (key >>> 1) & MAX_MINOR;
+    return new Version(major + "." + minor + "." + incremental, major, minor, incremental,
+        Identifier.NONE, Identifier.NONE);
+  }
+
+  /**
+   * Hash the qualifiers and identifiers, so equal versions like <code>1.2</code> and
+   * <code>1.2.0</code> share a hash code.
+   *
+   * @return A hash code.
+   */
+  private int hash() {
+    int result = (major * 31 + minor) * 31 + incremental;
+    result = result * 31 + Arrays.hashCode(prerelease);
+    return result * 31 + Arrays.hashCode(buildNumber);
   }
 
   @Override
@@ -104,38 +228,52 @@ class Version extends BaseExpression {
     if (this == that) {
       return result;
     }
-    result = major - that.major;
-    if (result != 0) {
-      return result;
-    }
-    result = minor - that.minor;
-    if (result != 0) {
-      return result;
-    }
-    result = incremental - that.incremental;
-    if (result != 0) {
-      return result;
+    if (key != NO_KEY && that.key != NO_KEY) {
+      if (key != that.key) {
+        return key < that.key ? -1 : 1;
+      }
+    } else {
+      result = major - that.major;
+      if (result != 0) {
+        return result;
+      }
+      result = minor - that.minor;
+      if (result != 0) {
+        return result;
+      }
+      result = incremental - that.incremental;
+      if (result != 0) {
+        return result;
+      }
     }
+    return compareIdentifiers(that);
+  }
+
+  /**
+   * Compare the pre-release and then the build identifiers of this version, ignoring the
+   * qualifiers.
+   *
+   * @param that The other version.
+   * @return A negative, zero or positive number.
+   */
+  int compareIdentifiers(final Version that) {
     // pre-release
-    result = compareTo(prerelease, that.prerelease, -1);
+    int result = compareTo(prerelease, that.prerelease, -1);
     if (result != 0) {
       return result;
     }
     // build number
-    result = compareTo(buildNumber, that.buildNumber, 1);
-    return result;
+    return compareTo(buildNumber, that.buildNumber, 1);
   }
 
-  private int compareTo(final String[] left, final String[] right, final int sign) {
+  private int compareTo(final Identifier[] left, final Identifier[] right, final int sign) {
+    if (left == right) {
+      // interned or both empty
+      return 0;
+    }
     int result = 0, i = 0, len = Math.min(left.length, right.length);
     while (result == 0 && i < len) {
-      if (isNumber(left[i]) && isNumber(right[i])) {
-        result = Integer.parseInt(left[i]) - Integer.parseInt(right[i]);
-      } else if (isNumber(left[i]) || isNumber(right[i])) {
-        result = isNumber(left[i]) ? -1 : 1;
-      } else {
-        result = left[i].compareTo(right[i]);
-      }
+      result = left[i].compareTo(right[i]);
       i++;
     }
     if (result == 0) {
@@ -144,15 +282,6 @@ class Version extends BaseExpression {
     return result;
   }
 
-  private boolean isNumber(final String text) {
-    try {
-      Integer.parseInt(text);
-      return true;
-    } catch (NumberFormatException ex) {
-      return false;
-    }
-  }
-
   @Override
   public boolean equals(final Object that) {
     if (this == that) {
@@ -163,7 +292,7 @@ class Version extends BaseExpression {
 
   @Override
   public int hashCode() {
-    return text.hashCode();
+    return hash;
   }
 
   @Override
@@ -171,6 +300,16 @@ class Version extends BaseExpression {
     return this.equals(expr);
   }
 
+  @Override
+  public Semver compile() {
+    return this;
+  }
+
+  @Override
+  IntervalSet intervals() {
+    return IntervalSet.interval(this, true, this, true);
+  }
+
   /**
    * Find the next major version of this one.
    *
@@ -180,8 +319,7 @@ class Version extends BaseExpression {
     int major = this.major;
     int minor = this.minor;
     int incremental = this.incremental;
-    List<String> parts = Arrays.asList(text.split("\\."));
-    int idx = parts.indexOf("x");
+    int idx = xIndex(text);
     if (idx == 1) {
       major += 1;
       minor = 0;
@@ -202,8 +340,29 @@ class Version extends BaseExpression {
         }
       }
     }
-    return new Version(major + "." + minor + "." + incremental, major, minor,
-        incremental);
+    return builder().major(major).minor(minor).incremental(incremental).build();
+  }
+
+  /**
+   * Find the first dot separated segment of the given text that is a single 'x'.
+   *
+   * @param text The version text.
+   * @return The segment index or -1.
+   */
+  private static int xIndex(final String text) {
+    int segment = 0;
+    int start = 0;
+    int length = text.length();
+    for (int i = 0; i <= length; i++) {
+      if (i == length || text.charAt(i) == '.') {
+        if (i - start == 1 && text.charAt(start) == 'x') {
+          return segment;
+        }
+        segment++;
+        start = i + 1;
+      }
+    }
+    return -1;
   }
 
   /**
@@ -234,82 +393,179 @@ class Version extends BaseExpression {
   }
 
   /**
-   * The text qualifier.
+   * The pre-release identifiers. Shared, don't modify.
    *
-   * @return The text qualifier.
+   * @return The pre-release identifiers.
    */
-  public String getText() {
-    return text;
+  Identifier[] prerelease() {
+    return prerelease;
   }
 
   /**
-   * Set the build qualifier.
+   * The build identifiers. Shared, don't modify.
    *
-   * @param build the build qualifier.
+   * @return The build identifiers.
    */
-  public void setOldBuild(final int build) {
+  Identifier[] buildNumber() {
+    return buildNumber;
   }
 
   /**
-   * Set the incremental qualifier.
+   * The text qualifier.
    *
-   * @param incremental the incremental qualifier.
+   * @return The text qualifier.
    */
-  public void setIncremental(final int incremental) {
-    this.incremental = incremental;
+  public String getText() {
+    return text;
   }
 
-  /**
-   * Set the major qualifier.
-   *
-   * @param major the major qualifier.
-   */
-  public void setMajor(final int major) {
-    this.major = major;
+  @Override
+  public String text() {
+    return text;
   }
 
-  /**
-   * Set the minor qualifier.
-   *
-   * @param minor the minor qualifier.
-   */
-  public void setMinor(final int minor) {
-    this.minor = minor;
+  @Override
+  public StringBuilder appendTo(final StringBuilder buffer) {
+    return buffer.append(text);
   }
 
-  /**
-   * Set the tag qualifier.
-   *
-   * @param tag the tag qualifier.
-   */
-  public void setTag(final String tag) {
+  @Override
+  public Type type() {
+    return Type.STATIC;
   }
 
   /**
-   * Set the text qualifier.
+   * Creates versions.
    *
-   * @param text the text qualifier.
+   * @author edgar.espina
    */
-  public void setText(final String text) {
-    this.text = text;
-  }
+  static final class Builder {
+
+    /**
+     * The text or null to generate it.
+     */
+    private String text;
+
+    /**
+     * The major qualifier.
+     */
+    private int major;
+
+    /**
+     * The minor qualifier.
+     */
+    private int minor;
+
+    /**
+     * The incremental qualifier.
+     */
+    private int incremental;
+
+    /**
+     * The pre-release identifiers.
+     */
+    private Identifier[] prerelease = Identifier.NONE;
+
+    /**
+     * The build identifiers.
+     */
+    private Identifier[] buildNumber = Identifier.NONE;
+
+    /**
+     * Set the text. Optional, by default it is generated from the qualifiers and identifiers.
+     *
+     * @param text The text.
+     * @return This builder.
+     */
+    public Builder text(final String text) {
+      this.text = text;
+      return this;
+    }
 
-  @Override
-  public String text() {
-    return text;
-  }
+    /**
+     * Set the major qualifier.
+     *
+     * @param major The major qualifier.
+     * @return This builder.
+     */
+    public Builder major(final int major) {
+      this.major = major;
+      return this;
+    }
 
-  @Override
-  public Type type() {
-    return Type.STATIC;
-  }
+    /**
+     * Set the minor qualifier.
+     *
+     * @param minor The minor qualifier.
+     * @return This builder.
+     */
+    public Builder minor(final int minor) {
+      this.minor = minor;
+      return this;
+    }
 
-  public void setPreRelease(final String[] prerelease) {
-    this.prerelease = prerelease;
-  }
+    /**
+     * Set the incremental qualifier.
+     *
+     * @param incremental The incremental qualifier.
+     * @return This builder.
+     */
+    public Builder incremental(final int incremental) {
+      this.incremental = incremental;
+      return this;
+    }
 
-  public void setBuildNumber(final String[] buildNumber) {
-    this.buildNumber = buildNumber;
-  }
+    /**
+     * Set the pre-release identifiers.
+     *
+     * @param prerelease The pre-release identifiers.
+     * @return This builder.
+     */
+    public Builder prerelease(final Identifier... prerelease) {
+      this.prerelease = notNull(prerelease, "The pre-release is required.");
+      return this;
+    }
+
+    /**
+     * Set the build identifiers.
+     *
+     * @param buildNumber The build identifiers.
+     * @return This builder.
+     */
+    public Builder buildNumber(final Identifier... buildNumber) {
+      this.buildNumber = notNull(buildNumber, "The build number is required.");
+      return this;
+    }
+
+    /**
+     * Creates a new version.
+     *
+     * @return A new version.
+     */
+    public Version build() {
+      String text = this.text;
+      if (text == null) {
+        StringBuilder buffer = new StringBuilder().append(major).append('.').append(minor)
+            .append('.').append(incremental);
+        append(buffer, '-', prerelease);
+        append(buffer, '+', buildNumber);
+        text = buffer.toString();
+      }
+      return new Version(text, major, minor, incremental, prerelease, buildNumber);
+    }
 
+    /**
+     * Append identifiers.
+     *
+     * @param buffer The buffer.
+     * @param separator The prefix.
+     * @param identifiers The identifiers.
+     */
+    private static void append(final StringBuilder buffer, final char separator,
+        final Identifier[] identifiers) {
+      for (int i = 0; i < identifiers.length; i++) {
+        buffer.append(i == 0 ? separator : '.').append(identifiers[i]);
+      }
+    }
+  }
 }
@@ -0,0 +1,363 @@
+/**
+ * Copyright (c) 2013 Edgar Espina
+ *
+ * This file is part of amd4j (https://github.com/jknack/amd4j)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jknack.semver;
+
+import static org.apache.commons.lang3.Validate.isTrue;
+import static org.apache.commons.lang3.Validate.notNull;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Encode versions as byte sequences whose unsigned lexicographic order is the version precedence,
+ * so sorted key-value stores and sorted byte arrays can answer range scans without decoding:
+ *
+ * <pre>
+ * byte[] from = VersionCodec.encode(Semver.create("1.2.0"));
+ * byte[] to = VersionCodec.encode(Semver.create("1.3.0"));
+ * // every version of ~1.2.0 encodes between from (inclusive) and to (exclusive)
+ * </pre>
+ *
+ * Layout:
+ * <ul>
+ * <li>major, minor and incremental: a byte with the number of significant bytes (0 to 4) followed
+ * by the big-endian bytes.</li>
+ * <li>pre-release identifiers: numeric ones as <code>0x01</code>, the number of significant digits
+ * and the digits; alphanumeric ones as <code>0x02</code>, the characters and <code>0x00</code>.
+ * The list ends with <code>0x03</code>, so a longer list and any pre-release sort lower.</li>
+ * <li>build identifiers: same as pre-release identifiers, but the list ends with <code>0x00</code>,
+ * so a longer list sorts higher.</li>
+ * </ul>
+ * Encoding is canonical: versions that compare as equal, like <code>1.2</code> and
+ * <code>1.2.0</code>, encode to the same bytes. Decoding produces the canonical text, like
+ * <code>1.2.0</code>.
+ *
+ * @author edgar.espina
+ * @since 0.1.1
+ */
+public final class VersionCodec {
+
+  /**
+   * Marks a numeric identifier.
+   */
+  private static final byte NUMERIC = 0x01;
+
+  /**
+   * Marks an alphanumeric identifier.
+   */
+  private static final byte ALPHANUMERIC = 0x02;
+
+  /**
+   * Ends an alphanumeric identifier.
+   */
+  private static final byte END_OF_TEXT = 0x00;
+
+  /**
+   * Ends the pre-release identifiers. Greater than the identifier markers.
+   */
+  private static final byte END_OF_PRERELEASE = 0x03;
+
+  /**
+   * Ends the build identifiers. Lower than the identifier markers.
+   */
+  private static final byte END_OF_BUILD = 0x00;
+
+  /**
+   * Digit counts from this one on are written as this byte followed by a 4 bytes count.
+   */
+  private static final int LONG_COUNT = 0xFF;
+
+  /**
+   * Not allowed.
+   */
+  private VersionCodec() {
+  }
+
+  /**
+   * Encode a version.
+   *
+   * @param version A version, see {@link Semver.Type#STATIC}.
+   * @return The encoded version.
+   */
+  public static byte[] encode(final Semver version) {
+    byte[] bytes = new byte[encodedLength(version)];
+    encode(version, ByteBuffer.wrap(bytes));
+    return bytes;
+  }
+
+  /**
+   * Encode a version at the current position of the buffer.
+   *
+   * @param version A version, see {@link Semver.Type#STATIC}.
+   * @param buffer The buffer. Must have {@link #encodedLength(Semver)} bytes remaining.
+   * @return The buffer.
+   */
+  public static ByteBuffer encode(final Semver version, final ByteBuffer buffer) {
+    Version v = version(version);
+    notNull(buffer, "The buffer is required.");
+    putInt(buffer, v.getMajor());
+    putInt(buffer, v.getMinor());
+    putInt(buffer, v.getIncremental());
+    putIdentifiers(buffer, v.prerelease());
+    buffer.put(END_OF_PRERELEASE);
+    putIdentifiers(buffer, v.buildNumber());
+    buffer.put(END_OF_BUILD);
+    return buffer;
+  }
+
+  /**
+   * The number of bytes {@link #encode(Semver)} produces for a version.
+   *
+   * @param version A version, see {@link Semver.Type#STATIC}.
+   * @return The number of bytes.
+   */
+  public static int encodedLength(final Semver version) {
+    Version v = version(version);
+    return intLength(v.getMajor()) + intLength(v.getMinor()) + intLength(v.getIncremental())
+        + identifiersLength(v.prerelease()) + identifiersLength(v.buildNumber()) + 2;
+  }
+
+  /**
+   * Decode a version.
+   *
+   * @param bytes An encoded version.
+   * @return The version.
+   */
+  public static Semver decode(final byte[] bytes) {
+    ByteBuffer buffer = ByteBuffer.wrap(notNull(bytes, "The bytes are required."));
+    Semver version = decode(buffer);
+    isTrue(!buffer.hasRemaining(), "Trailing bytes at: %s", buffer.position());
+    return version;
+  }
+
+  /**
+   * Decode a version at the current position of the buffer. On return the buffer is positioned
+   * after the encoded version.
+   *
+   * @param buffer A buffer with an encoded version.
+   * @return The version.
+   */
+  public static Semver decode(final ByteBuffer buffer) {
+    notNull(buffer, "The buffer is required.");
+    return Version.builder()
+        .major(getInt(buffer))
+        .minor(getInt(buffer))
+        .incremental(getInt(buffer))
+        .prerelease(getIdentifiers(buffer, END_OF_PRERELEASE))
+        .buildNumber(getIdentifiers(buffer, END_OF_BUILD))
+        .build();
+  }
+
+  /**
+   * Compare two encoded versions as unsigned bytes. Same result sign as
+   * {@link Semver#compareTo(Semver)} of the decoded versions.
+   *
+   * @param left An encoded version.
+   * @param right An encoded version.
+   * @return A negative, zero or positive number.
+   */
+  public static int compare(final byte[] left, final byte[] right) {
+    int len = Math.min(left.length, right.length);
+    for (int i = 0; i < len; i++) {
+      int result = (left[i] & 0xFF) - (right[i] & 0xFF);
+      if (result != 0) {
+        return result;
+      }
+    }
+    return left.length - right.length;
+  }
+
+  /**
+   * Check the argument is a version.
+   *
+   * @param version The argument.
+   * @return The version.
+   */
+  private static Version version(final Semver version) {
+    isTrue(notNull(version, "The version is required.") instanceof Version, "Not a version: %s",
+        version);
+    return (Version) version;
+  }
+
+  /**
+   * Number of significant bytes of a non-negative int.
+   *
+   * @param value The value.
+   * @return Number of significant bytes, from 0 to 4.
+   */
+  private static int significantBytes(final int value) {
+    isTrue(value >= 0, "Negative qualifier: %s", value);
+    return (Integer.SIZE - Integer.numberOfLeadingZeros(value) + Byte.SIZE - 1) / Byte.SIZE;
+  }
+
+  /**
+   * Encoded length of an int.
+   *
+   * @param value The value.
+   * @return Encoded length.
+   */
+  private static int intLength(final int value) {
+    return 1 + significantBytes(value);
+  }
+
+  /**
+   * Write an int as the number of significant bytes and the big-endian bytes.
+   *
+   * @param buffer The buffer.
+   * @param value The value.
+   */
+  private static void putInt(final ByteBuffer buffer, final int value) {
+    int count = significantBytes(value);
+    buffer.put((byte) count);
+    for (int i = count - 1; i >= 0; i--) {
+      buffer.put((byte) (value >>> i * Byte.SIZE));
+    }
+  }
+
+  /**
+   * Read an int written by {@link #putInt(ByteBuffer, int)}.
+   *
+   * @param buffer The buffer.
+   * @return The value.
+   */
+  private static int getInt(final ByteBuffer buffer) {
+    int count = buffer.get();
+    isTrue(count >= 0 && count <= Integer.BYTES, "Bad qualifier at: %s", buffer.position() - 1);
+    int value = 0;
+    for (int i = 0; i < count; i++) {
+      value = value << Byte.SIZE | buffer.get() & 0xFF;
+    }
+    return value;
+  }
+
+  /**
+   * Index of the first significant digit of a numeric identifier.
+   *
+   * @param text The identifier text.
+   * @return Index of the first significant digit, or the text length for zero.
+   */
+  private static int firstDigit(final String text) {
+    int i = 0;
+    while (i < text.length() && text.charAt(i) == '0') {
+      i++;
+    }
+    return i;
+  }
+
+  /**
+   * Encoded length of a digit count.
+   *
+   * @param count The digit count.
+   * @return Encoded length.
+   */
+  private static int countLength(final int count) {
+    return count < LONG_COUNT ? 1 : 1 + Integer.BYTES;
+  }
+
+  /**
+   * Encoded length of identifiers, without the list terminator.
+   *
+   * @param identifiers The identifiers.
+   * @return Encoded length.
+   */
+  private static int identifiersLength(final Identifier[] identifiers) {
+    int length = 0;
+    for (Identifier identifier : identifiers) {
+      String text = identifier.toString();
+      if (identifier.isNumeric()) {
+        int digits = text.length() - firstDigit(text);
+        length += 1 + countLength(digits) + digits;
+      } else {
+        length += 1 + text.length() + 1;
+      }
+    }
+    return length;
+  }
+
+  /**
+   * Write identifiers, without the list terminator.
+   *
+   * @param buffer The buffer.
+   * @param identifiers The identifiers.
+   */
+  private static void putIdentifiers(final ByteBuffer buffer, final Identifier[] identifiers) {
+    for (Identifier identifier : identifiers) {
+      String text = identifier.toString();
+      if (identifier.isNumeric()) {
+        int from = firstDigit(text);
+        int digits = text.length() - from;
+        buffer.put(NUMERIC);
+        if (digits < LONG_COUNT) {
+          buffer.put((byte) digits);
+        } else {
+          buffer.put((byte) LONG_COUNT).putInt(digits);
+        }
+        for (int i = from; i < text.length(); i++) {
+          buffer.put((byte) text.charAt(i));
+        }
+      } else {
+        buffer.put(ALPHANUMERIC);
+        for (int i = 0; i < text.length(); i++) {
+          char ch = text.charAt(i);
+          isTrue(ch > END_OF_TEXT && ch < 0x80, "Not an ASCII identifier: %s", text);
+          buffer.put((byte) ch);
+        }
+        buffer.put(END_OF_TEXT);
+      }
+    }
+  }
+
+  /**
+   * Read identifiers up to the given list terminator.
+   *
+   * @param buffer The buffer.
+   * @param end The list terminator.
+   * @return The identifiers.
+   */
+  private static Identifier[] getIdentifiers(final ByteBuffer buffer, final byte end) {
+    List<Identifier> identifiers = null;
+    StringBuilder text = new StringBuilder();
+    for (byte marker = buffer.get(); marker != end; marker = buffer.get()) {
+      text.setLength(0);
+      if (marker == NUMERIC) {
+        int digits = buffer.get() & 0xFF;
+        if (digits == LONG_COUNT) {
+          digits = buffer.getInt();
+        }
+        for (int i = 0; i < digits; i++) {
+          text.append((char) buffer.get());
+        }
+        if (digits == 0) {
+          text.append('0');
+        }
+      } else {
+        isTrue(marker == ALPHANUMERIC, "Bad identifier at: %s", buffer.position() - 1);
+        for (byte ch = buffer.get(); ch != END_OF_TEXT; ch = buffer.get()) {
+          text.append((char) ch);
+        }
+      }
+      if (identifiers == null) {
+        identifiers = new ArrayList<Identifier>();
+      }
+      identifiers.add(IdentifierTable.identifier(text, 0, text.length()));
+    }
+    return identifiers == null ? Identifier.NONE
+        : identifiers.toArray(new Identifier[identifiers.size()]);
+  }
+}
@@ -0,0 +1,340 @@
+/**
+ * Copyright (c) 2013 Edgar Espina
+ *
+ * This file is part of amd4j (https://github.com/jknack/amd4j)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jknack.semver;
+
+import static org.apache.commons.lang3.Validate.isTrue;
+import static org.apache.commons.lang3.Validate.notNull;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * An immutable, sorted set of versions. Range queries are answered with binary searches over the
+ * intervals of the query expression (see {@link Semver#compile()}) and return views over the index,
+ * so nothing is copied.
+ *
+ * <pre>
+ * VersionIndex index = VersionIndex.of(versions);
+ * List&lt;Semver&gt; matches = index.query(Semver.create("~1.2"));
+ * Semver latest = index.floor(Semver.create("2.0.0"));
+ * </pre>
+ *
+ * @author edgar.espina
+ * @since 0.1.1
+ */
+public final class VersionIndex implements Iterable<Semver> {
+
+  /**
+   * A view over a union of disjoint index ranges.
+   *
+   * @author edgar.espina
+   */
+  private final class View extends AbstractList<Semver> implements RandomAccess {
+
+    /**
+     * Start offset of each range, inclusive.
+     */
+    private final int[] starts;
+
+    /**
+     * Number of versions before each range.
+     */
+    private final int[] offsets;
+
+    /**
+     * Number of versions in the view.
+     */
+    private final int size;
+
+    /**
+     * Creates a new view.
+     *
+     * @param starts Start offset of each range.
+     * @param ends End offset of each range, exclusive.
+     * @param count Number of ranges.
+     */
+    public View(final int[] starts, final int[] ends, final int count) {
+      int[] from = new int[count];
+      int[] offsets = new int[count];
+      int ranges = 0, size = 0;
+      for (int i = 0; i < count; i++) {
+        // empty ranges are dropped, so offsets are strictly increasing
+        if (starts[i] < ends[i]) {
+          from[ranges] = starts[i];
+          offsets[ranges++] = size;
+          size += ends[i] - starts[i];
+        }
+      }
+      this.starts = Arrays.copyOf(from, ranges);
+      this.offsets = Arrays.copyOf(offsets, ranges);
+      this.size = size;
+    }
+
+    @Override
+    public Semver get(final int index) {
+      if (index < 0 || index >= size) {
+        throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+      }
+      int range = Arrays.binarySearch(offsets, index);
+      if (range < 0) {
+        range = -range - 2;
+      }
+      return versions[starts[range] + index - offsets[range]];
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+  }
+
+  /**
+   * An empty index.
+   */
+  private static final VersionIndex EMPTY = new VersionIndex(new Semver[0]);
+
+  /**
+   * The versions in ascending order, without duplicates.
+   */
+  private final Semver[] versions;
+
+  /**
+   * Creates a new index.
+   *
+   * @param versions The versions in ascending order, without duplicates.
+   */
+  private VersionIndex(final Semver[] versions) {
+    this.versions = versions;
+  }
+
+  /**
+   * Creates a new index. Equal versions, like <code>1.2</code> and <code>1.2.0</code>, are kept
+   * once.
+   *
+   * @param versions The versions. Required.
+   * @return A new index.
+   */
+  public static VersionIndex of(final Collection<? extends Semver> versions) {
+    notNull(versions, "The versions are required.");
+    return create(versions.toArray(new Semver[versions.size()]));
+  }
+
+  /**
+   * Creates a new index. Equal versions, like <code>1.2</code> and <code>1.2.0</code>, are kept
+   * once.
+   *
+   * @param versions The versions. Required.
+   * @return A new index.
+   */
+  public static VersionIndex of(final String... versions) {
+    notNull(versions, "The versions are required.");
+    Semver[] result = new Semver[versions.length];
+    for (int i = 0; i < versions.length; i++) {
+      result[i] = Semver.create(versions[i]);
+    }
+    return create(result);
+  }
+
+  /**
+   * Sort and remove duplicates.
+   *
+   * @param versions The versions. They are sorted in place.
+   * @return A new index.
+   */
+  private static VersionIndex create(final Semver[] versions) {
+    if (versions.length == 0) {
+      return EMPTY;
+    }
+    for (Semver version : versions) {
+      isTrue(version instanceof Version, "Not a version: %s", version);
+    }
+    Arrays.sort(versions);
+    int size = 1;
+    for (int i = 1; i < versions.length; i++) {
+      if (versions[i].compareTo(versions[size - 1]) != 0) {
+        versions[size++] = versions[i];
+      }
+    }
+    return new VersionIndex(size == versions.length ? versions : Arrays.copyOf(versions, size));
+  }
+
+  /**
+   * Number of versions.
+   *
+   * @return Number of versions.
+   */
+  public int size() {
+    return versions.length;
+  }
+
+  /**
+   * Get a version by rank.
+   *
+   * @param rank A rank from 0 to size - 1.
+   * @return The version at the given rank.
+   */
+  public Semver get(final int rank) {
+    return versions[rank];
+  }
+
+  /**
+   * Number of versions lower than the given one.
+   *
+   * @param version A version. Required.
+   * @return Number of versions lower than the given one.
+   */
+  public int rank(final Semver version) {
+    int i = search(version);
+    return i < 0 ? -i - 1 : i;
+  }
+
+  /**
+   * True if the index has the given version.
+   *
+   * @param version A version. Required.
+   * @return True if the index has the given version.
+   */
+  public boolean contains(final Semver version) {
+    return search(version) >= 0;
+  }
+
+  /**
+   * The highest version lower than or equal to the given one.
+   *
+   * @param version A version. Required.
+   * @return The highest version lower than or equal to the given one or null.
+   */
+  public Semver floor(final Semver version) {
+    int i = search(version);
+    i = i < 0 ? -i - 2 : i;
+    return i < 0 ? null : versions[i];
+  }
+
+  /**
+   * The lowest version higher than or equal to the given one.
+   *
+   * @param version A version. Required.
+   * @return The lowest version higher than or equal to the given one or null.
+   */
+  public Semver ceiling(final Semver version) {
+    int i = search(version);
+    i = i < 0 ? -i - 1 : i;
+    return i < versions.length ? versions[i] : null;
+  }
+
+  /**
+   * Number of versions that satisfy the given expression.
+   *
+   * @param expr An expression. Required.
+   * @return Number of versions that satisfy the given expression.
+   */
+  public int count(final Semver expr) {
+    return query(expr).size();
+  }
+
+  /**
+   * The versions that satisfy the given expression, in ascending order. The result is a read-only
+   * view over this index.
+   *
+   * @param expr An expression. Required.
+   * @return The versions that satisfy the given expression.
+   */
+  public List<Semver> query(final Semver expr) {
+    notNull(expr, "The expression is required.");
+    IntervalSet intervals = expr.intervals();
+    if (intervals == null) {
+      // not an interval expression: check every version
+      int[] starts = new int[versions.length];
+      int[] ends = new int[versions.length];
+      int count = 0;
+      for (int i = 0; i < versions.length; i++) {
+        if (expr.matches(versions[i])) {
+          starts[count] = i;
+          ends[count++] = i + 1;
+        }
+      }
+      return new View(starts, ends, count);
+    }
+    int size = intervals.size();
+    int[] starts = new int[size];
+    int[] ends = new int[size];
+    int from = 0;
+    for (int i = 0; i < size; i++) {
+      starts[i] = intervals.lowerIndex(versions, from, versions.length, i);
+      ends[i] = intervals.upperIndex(versions, starts[i], versions.length, i);
+      from = ends[i];
+    }
+    return new View(starts, ends, size);
+  }
+
+  /**
+   * The highest version that satisfies the given expression.
+   *
+   * @param expr An expression. Required.
+   * @return The highest version that satisfies the given expression or null.
+   */
+  public Semver max(final Semver expr) {
+    return notNull(expr, "The expression is required.").maxSatisfying(versions);
+  }
+
+  /**
+   * The lowest version that satisfies the given expression.
+   *
+   * @param expr An expression. Required.
+   * @return The lowest version that satisfies the given expression or null.
+   */
+  public Semver min(final Semver expr) {
+    return notNull(expr, "The expression is required.").minSatisfying(versions);
+  }
+
+  /**
+   * All the versions in ascending order, as a read-only list.
+   *
+   * @return All the versions in ascending order.
+   */
+  public List<Semver> versions() {
+    return Collections.unmodifiableList(Arrays.asList(versions));
+  }
+
+  @Override
+  public Iterator<Semver> iterator() {
+    return versions().iterator();
+  }
+
+  @Override
+  public String toString() {
+    return Arrays.toString(versions);
+  }
+
+  /**
+   * Binary search a version.
+   *
+   * @param version A version. Required.
+   * @return The index of the version or (-(insertion point) - 1).
+   */
+  private int search(final Semver version) {
+    isTrue(notNull(version, "The version is required.") instanceof Version, "Not a version: %s",
+        version);
+    return Arrays.binarySearch(versions, version);
+  }
+}
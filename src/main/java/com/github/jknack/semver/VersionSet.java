@@ -0,0 +1,420 @@
+/**
+ * Copyright (c) 2013 Edgar Espina
+ *
+ * This file is part of amd4j (https://github.com/jknack/amd4j)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jknack.semver;
+
+import static org.apache.commons.lang3.Validate.isTrue;
+import static org.apache.commons.lang3.Validate.notNull;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.TreeSet;
+
+/**
+ * A sorted set of versions that keeps release versions, the ones without pre-release and build
+ * identifiers, as a sorted array of packed keys: 8 bytes per version instead of a
+ * {@link Semver} object with its text and identifiers. Other versions are kept in a small side
+ * {@link TreeSet}.
+ *
+ * <pre>
+ * VersionSet set = VersionSet.of("1.2.3", "1.2.9", "1.3.0-beta", "2.0.0");
+ * VersionSet matches = set.filter(Semver.create("~1.2")); // [1.2.3, 1.2.9]
+ * </pre>
+ *
+ * Versions are equal if they compare as equal, like <code>1.2</code> and <code>1.2.0</code>.
+ * Release versions are created on demand while iterating, their text has three qualifiers, like
+ * <code>1.2.0</code>. Not thread-safe.
+ *
+ * @author edgar.espina
+ * @since 0.1.1
+ */
+public final class VersionSet extends AbstractSet<Semver> {
+
+  /**
+   * Iterate over the release keys and the side set, in ascending order.
+   *
+   * @author edgar.espina
+   */
+  private final class Iter implements Iterator<Semver> {
+
+    /**
+     * Index of the next release key.
+     */
+    private int index;
+
+    /**
+     * The release version at index or null if not created yet.
+     */
+    private Version release;
+
+    /**
+     * The side set iterator.
+     */
+    private Iterator<Semver> it = others.iterator();
+
+    /**
+     * The next version of the side set or null.
+     */
+    private Semver other = it.hasNext() ? it.next() : null;
+
+    /**
+     * Index of the last returned release key or -1.
+     */
+    private int last = -1;
+
+    /**
+     * The last returned version of the side set or null.
+     */
+    private Semver lastOther;
+
+    @Override
+    public boolean hasNext() {
+      return index < size || other != null;
+    }
+
+    @Override
+    public Semver next() {
+      if (index < size) {
+        if (release == null) {
+          release = Version.release(keys[index]);
+        }
+        if (other == null || release.compareTo(other) < 0) {
+          Version next = release;
+          last = index++;
+          lastOther = null;
+          release = null;
+          return next;
+        }
+      }
+      if (other == null) {
+        throw new NoSuchElementException();
+      }
+      Semver next = other;
+      other = it.hasNext() ? it.next() : null;
+      last = -1;
+      lastOther = next;
+      return next;
+    }
+
+    @Override
+    public void remove() {
+      if (last >= 0) {
+        System.arraycopy(keys, last + 1, keys, last, size - last - 1);
+        size--;
+        index--;
+        last = -1;
+      } else if (lastOther != null) {
+        others.remove(lastOther);
+        lastOther = null;
+        // the side set iterator is stale now: resume after the prefetched version
+        it = other == null ? Collections.<Semver> emptyIterator()
+            : others.tailSet(other, false).iterator();
+      } else {
+        throw new IllegalStateException();
+      }
+    }
+  }
+
+  /**
+   * The release keys, in ascending order.
+   */
+  private long[] keys;
+
+  /**
+   * Number of release keys.
+   */
+  private int size;
+
+  /**
+   * The other versions.
+   */
+  private final TreeSet<Semver> others;
+
+  /**
+   * Creates a new set.
+   *
+   * @param keys The release keys, in ascending order without duplicates.
+   * @param size Number of release keys.
+   * @param others The other versions.
+   */
+  private VersionSet(final long[] keys, final int size, final TreeSet<Semver> others) {
+    this.keys = keys;
+    this.size = size;
+    this.others = others;
+  }
+
+  /**
+   * Creates an empty set.
+   */
+  public VersionSet() {
+    this(new long[16], 0, new TreeSet<Semver>());
+  }
+
+  /**
+   * Creates a new set.
+   *
+   * @param versions The versions. Required.
+   * @return A new set.
+   */
+  public static VersionSet of(final Collection<? extends Semver> versions) {
+    notNull(versions, "The versions are required.");
+    return create(versions.toArray(new Semver[versions.size()]));
+  }
+
+  /**
+   * Creates a new set.
+   *
+   * @param versions The versions. Required.
+   * @return A new set.
+   */
+  public static VersionSet of(final String... versions) {
+    notNull(versions, "The versions are required.");
+    Semver[] result = new Semver[versions.length];
+    for (int i = 0; i < versions.length; i++) {
+      result[i] = Semver.create(versions[i]);
+    }
+    return create(result);
+  }
+
+  /**
+   * Pack, sort and remove duplicates.
+   *
+   * @param versions The versions.
+   * @return A new set.
+   */
+  private static VersionSet create(final Semver[] versions) {
+    long[] keys = new long[Math.max(versions.length, 1)];
+    int size = 0;
+    TreeSet<Semver> others = new TreeSet<Semver>();
+    for (Semver version : versions) {
+      long key = key(version);
+      if (key == Version.NO_KEY) {
+        others.add(version);
+      } else {
+        keys[size++] = key;
+      }
+    }
+    Arrays.sort(keys, 0, size);
+    int distinct = 0;
+    for (int i = 0; i < size; i++) {
+      if (distinct == 0 || keys[i] != keys[distinct - 1]) {
+        keys[distinct++] = keys[i];
+      }
+    }
+    return new VersionSet(keys, distinct, others);
+  }
+
+  /**
+   * Check the argument is a version and get its release key.
+   *
+   * @param version The argument.
+   * @return The release key or {@link Version#NO_KEY}.
+   */
+  private static long key(final Semver version) {
+    isTrue(notNull(version, "The version is required.") instanceof Version, "Not a version: %s",
+        version);
+    return ((Version) version).releaseKey();
+  }
+
+  @Override
+  public int size() {
+    return size + others.size();
+  }
+
+  @Override
+  public boolean add(final Semver version) {
+    long key = key(version);
+    if (key == Version.NO_KEY) {
+      return others.add(version);
+    }
+    int i = Arrays.binarySearch(keys, 0, size, key);
+    if (i >= 0) {
+      return false;
+    }
+    i = -i - 1;
+    if (size == keys.length) {
+      keys = Arrays.copyOf(keys, size * 2);
+    }
+    System.arraycopy(keys, i, keys, i + 1, size - i);
+    keys[i] = key;
+    size++;
+    return true;
+  }
+
+  @Override
+  public boolean contains(final Object value) {
+    if (!(value instanceof Version)) {
+      return false;
+    }
+    long key = ((Version) value).releaseKey();
+    if (key == Version.NO_KEY) {
+      return others.contains(value);
+    }
+    return Arrays.binarySearch(keys, 0, size, key) >= 0;
+  }
+
+  @Override
+  public boolean remove(final Object value) {
+    if (!(value instanceof Version)) {
+      return false;
+    }
+    long key = ((Version) value).releaseKey();
+    if (key == Version.NO_KEY) {
+      return others.remove(value);
+    }
+    int i = Arrays.binarySearch(keys, 0, size, key);
+    if (i < 0) {
+      return false;
+    }
+    System.arraycopy(keys, i + 1, keys, i, size - i - 1);
+    size--;
+    return true;
+  }
+
+  @Override
+  public void clear() {
+    size = 0;
+    others.clear();
+  }
+
+  @Override
+  public Iterator<Semver> iterator() {
+    return new Iter();
+  }
+
+  /**
+   * The versions of this set or the given one.
+   *
+   * @param that The other set.
+   * @return A new set.
+   */
+  public VersionSet union(final VersionSet that) {
+    notNull(that, "The set is required.");
+    long[] keys = new long[Math.max(size + that.size, 1)];
+    int i = 0, j = 0, k = 0;
+    while (i < size || j < that.size) {
+      if (j == that.size || i < size && this.keys[i] < that.keys[j]) {
+        keys[k++] = this.keys[i++];
+      } else {
+        if (i < size && this.keys[i] == that.keys[j]) {
+          i++;
+        }
+        keys[k++] = that.keys[j++];
+      }
+    }
+    TreeSet<Semver> others = new TreeSet<Semver>(this.others);
+    others.addAll(that.others);
+    return new VersionSet(keys, k, others);
+  }
+
+  /**
+   * The versions of this set that also belong to the given one.
+   *
+   * @param that The other set.
+   * @return A new set.
+   */
+  public VersionSet intersection(final VersionSet that) {
+    notNull(that, "The set is required.");
+    long[] keys = new long[Math.max(Math.min(size, that.size), 1)];
+    int i = 0, j = 0, k = 0;
+    while (i < size && j < that.size) {
+      if (this.keys[i] < that.keys[j]) {
+        i++;
+      } else if (this.keys[i] > that.keys[j]) {
+        j++;
+      } else {
+        keys[k++] = this.keys[i++];
+        j++;
+      }
+    }
+    TreeSet<Semver> others = new TreeSet<Semver>(this.others);
+    others.retainAll(that.others);
+    return new VersionSet(keys, k, others);
+  }
+
+  /**
+   * The versions of this set that match the expression. Release versions are selected with binary
+   * searches over the intervals of the expression (see {@link Semver#compile()}).
+   *
+   * @param expr The expression.
+   * @return A new set.
+   */
+  public VersionSet filter(final Semver expr) {
+    IntervalSet intervals = notNull(expr, "The expression is required.").intervals();
+    long[] keys = new long[Math.max(size, 1)];
+    int k = 0;
+    if (intervals == null) {
+      for (int i = 0; i < size; i++) {
+        if (expr.matches(Version.release(this.keys[i]))) {
+          keys[k++] = this.keys[i];
+        }
+      }
+    } else {
+      for (int i = 0; i < intervals.size(); i++) {
+        Version lower = intervals.lower(i);
+        Version upper = intervals.upper(i);
+        int from = lower == null ? 0 : rank(lower, !intervals.lowerInclusive(i));
+        int to = upper == null ? size : rank(upper, intervals.upperInclusive(i));
+        if (from < to) {
+          System.arraycopy(this.keys, from, keys, k, to - from);
+          k += to - from;
+        }
+      }
+    }
+    TreeSet<Semver> others = new TreeSet<Semver>();
+    for (Semver version : this.others) {
+      if (expr.matches(version)) {
+        others.add(version);
+      }
+    }
+    return new VersionSet(keys, k, others);
+  }
+
+  /**
+   * Number of release keys lower than a version. Keys are compared to the packed key of the
+   * version, a version is created only on a tie with a build bound or if a qualifier of the bound
+   * doesn't fit in a packed key.
+   *
+   * @param version The version.
+   * @param orEqual True to count keys equal to the version too.
+   * @return Number of release keys lower than the version.
+   */
+  private int rank(final Version version, final boolean orEqual) {
+    long key = version.key();
+    boolean build = version.buildNumber().length > 0;
+    int lo = 0, hi = size;
+    while (lo < hi) {
+      int mid = lo + hi >>> 1;
+      int result;
+      if (key == Version.NO_KEY || keys[mid] == key && build) {
+        result = Version.release(keys[mid]).compareTo(version);
+      } else {
+        result = Long.compare(keys[mid], key);
+      }
+      if (result < 0 || orEqual && result == 0) {
+        lo = mid + 1;
+      } else {
+        hi = mid;
+      }
+    }
+    return lo;
+  }
+}
@@ -0,0 +1,455 @@
+/**
+ * Copyright (c) 2013 Edgar Espina
+ *
+ * This file is part of amd4j (https://github.com/jknack/amd4j)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jknack.semver;
+
+import static org.apache.commons.lang3.Validate.isTrue;
+import static org.apache.commons.lang3.Validate.notNull;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A compact, append-only store of versions kept outside the heap. Every version takes a fixed
+ * width slot of a direct buffer with its major, minor and incremental qualifiers and a reference
+ * to its pre-release and build identifiers, which are interned: millions of versions share a few
+ * distinct suffixes like <code>-beta.1</code>.
+ *
+ * Matching and sorting work on slot indices and never create {@link Semver} objects, versions are
+ * created on demand by {@link #get(int)}:
+ *
+ * <pre>
+ * VersionStore store = new VersionStore();
+ * for (String version : versions) {
+ *   store.add(Semver.create(version));
+ * }
+ * int[] slots = store.sort(store.filter(Semver.create("~1.2")));
+ * Semver latest = store.get(slots[slots.length - 1]);
+ * </pre>
+ *
+ * Not thread-safe: concurrent reads are fine once all the versions have been added.
+ *
+ * @author edgar.espina
+ * @since 0.1.1
+ */
+public final class VersionStore {
+
+  /**
+   * Bytes per slot: major, minor, incremental and suffix reference.
+   */
+  private static final int SLOT = 4 * Integer.BYTES;
+
+  /**
+   * Offset of the minor qualifier in a slot.
+   */
+  private static final int MINOR = Integer.BYTES;
+
+  /**
+   * Offset of the incremental qualifier in a slot.
+   */
+  private static final int INCREMENTAL = 2 * Integer.BYTES;
+
+  /**
+   * Offset of the suffix reference in a slot.
+   */
+  private static final int SUFFIX = 3 * Integer.BYTES;
+
+  /**
+   * The version slots.
+   */
+  private ByteBuffer slots;
+
+  /**
+   * Number of versions.
+   */
+  private int size;
+
+  /**
+   * The distinct suffixes, as <code>0.0.0</code> versions with the suffix identifiers. The first
+   * one is the empty suffix.
+   */
+  private final List<Version> suffixes = new ArrayList<Version>();
+
+  /**
+   * Suffix references by suffix text.
+   */
+  private final Map<String, Integer> suffixIndex = new HashMap<String, Integer>();
+
+  /**
+   * Precedence rank of every suffix or null if a suffix was added since they were computed.
+   * Computed by the first read, volatile so concurrent readers only see a complete array.
+   */
+  private volatile int[] ranks;
+
+  /**
+   * Creates a new store.
+   *
+   * @param capacity The initial capacity, in versions.
+   */
+  public VersionStore(final int capacity) {
+    isTrue(capacity > 0, "The capacity must be positive: %s", capacity);
+    slots = ByteBuffer.allocateDirect(capacity * SLOT);
+    suffix(Identifier.NONE, Identifier.NONE);
+  }
+
+  /**
+   * Creates a new store.
+   */
+  public VersionStore() {
+    this(1024);
+  }
+
+  /**
+   * Add a version.
+   *
+   * @param version A version, see {@link Semver.Type#STATIC}.
+   * @return The slot of the version.
+   */
+  public int add(final Semver version) {
+    isTrue(notNull(version, "The version is required.") instanceof Version, "Not a version: %s",
+        version);
+    Version v = (Version) version;
+    if (size * SLOT == slots.capacity()) {
+      ByteBuffer buffer = ByteBuffer.allocateDirect(slots.capacity() * 2);
+      // Buffer method: the ByteBuffer overload doesn't exist on Java 8
+      ((Buffer) slots).clear();
+      buffer.put(slots);
+      slots = buffer;
+    }
+    int at = size * SLOT;
+    slots.putInt(at, v.getMajor());
+    slots.putInt(at + MINOR, v.getMinor());
+    slots.putInt(at + INCREMENTAL, v.getIncremental());
+    slots.putInt(at + SUFFIX, suffix(v.prerelease(), v.buildNumber()));
+    return size++;
+  }
+
+  /**
+   * Number of versions.
+   *
+   * @return Number of versions.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Number of distinct pre-release and build suffixes, including the empty one.
+   *
+   * @return Number of distinct suffixes.
+   */
+  public int suffixes() {
+    return suffixes.size();
+  }
+
+  /**
+   * The version at the given slot. Created on every call. The text has three qualifiers, like
+   * <code>1.2.0</code> for <code>1.2</code>.
+   *
+   * @param slot The slot.
+   * @return The version at the given slot.
+   */
+  public Semver get(final int slot) {
+    int at = offset(slot);
+    int major = slots.getInt(at);
+    int minor = slots.getInt(at + MINOR);
+    int incremental = slots.getInt(at + INCREMENTAL);
+    Version suffix = suffixes.get(slots.getInt(at + SUFFIX));
+    String text = major + "." + minor + "." + incremental + suffix.text();
+    return new Version(text, major, minor, incremental, suffix.prerelease(),
+        suffix.buildNumber());
+  }
+
+  /**
+   * Compare the versions at two slots.
+   *
+   * @param left A slot.
+   * @param right A slot.
+   * @return A negative, zero or positive number, like {@link Semver#compareTo(Semver)}.
+   */
+  public int compare(final int left, final int right) {
+    return compare(offset(left), offset(right), ranks());
+  }
+
+  /**
+   * True if the version at the given slot matches the expression.
+   *
+   * @param slot The slot.
+   * @param expr The expression.
+   * @return True if the version at the given slot matches the expression.
+   */
+  public boolean matches(final int slot, final Semver expr) {
+    IntervalSet intervals = notNull(expr, "The expression is required.").intervals();
+    return intervals == null ? expr.matches(get(slot)) : matches(offset(slot), intervals);
+  }
+
+  /**
+   * The slots of the versions that match the expression, in slot order.
+   *
+   * @param expr The expression.
+   * @return The matching slots.
+   */
+  public int[] filter(final Semver expr) {
+    IntervalSet intervals = notNull(expr, "The expression is required.").intervals();
+    int[] result = new int[size];
+    int count = 0;
+    for (int slot = 0; slot < size; slot++) {
+      if (intervals == null ? expr.matches(get(slot)) : matches(slot * SLOT, intervals)) {
+        result[count++] = slot;
+      }
+    }
+    return Arrays.copyOf(result, count);
+  }
+
+  /**
+   * All the slots in ascending version order.
+   *
+   * @return All the slots in ascending version order.
+   */
+  public int[] sort() {
+    int[] all = new int[size];
+    for (int slot = 0; slot < size; slot++) {
+      all[slot] = slot;
+    }
+    return sort(all);
+  }
+
+  /**
+   * Sort slots in ascending version order. Equal versions keep their relative order.
+   *
+   * @param slots The slots to sort, sorted in place.
+   * @return The given slots.
+   */
+  public int[] sort(final int[] slots) {
+    notNull(slots, "The slots are required.");
+    for (int slot : slots) {
+      offset(slot);
+    }
+    sort(slots.clone(), slots, 0, slots.length, ranks());
+    return slots;
+  }
+
+  /**
+   * The slot of the highest version that matches the expression.
+   *
+   * @param expr The expression.
+   * @return The slot of the highest matching version or -1.
+   */
+  public int max(final Semver expr) {
+    IntervalSet intervals = notNull(expr, "The expression is required.").intervals();
+    int[] ranks = ranks();
+    int max = -1;
+    for (int slot = 0; slot < size; slot++) {
+      int at = slot * SLOT;
+      if ((max < 0 || compare(at, max * SLOT, ranks) > 0)
+          && (intervals == null ? expr.matches(get(slot)) : matches(at, intervals))) {
+        max = slot;
+      }
+    }
+    return max;
+  }
+
+  @Override
+  public String toString() {
+    return size + " versions, " + suffixes.size() + " suffixes";
+  }
+
+  /**
+   * Check a slot.
+   *
+   * @param slot The slot.
+   * @return The buffer offset of the slot.
+   */
+  private int offset(final int slot) {
+    if (slot < 0 || slot >= size) {
+      throw new IndexOutOfBoundsException("Slot: " + slot + ", size: " + size);
+    }
+    return slot * SLOT;
+  }
+
+  /**
+   * Intern a suffix.
+   *
+   * @param prerelease The pre-release identifiers.
+   * @param buildNumber The build identifiers.
+   * @return The suffix reference.
+   */
+  private int suffix(final Identifier[] prerelease, final Identifier[] buildNumber) {
+    if (prerelease.length == 0 && buildNumber.length == 0 && !suffixes.isEmpty()) {
+      return 0;
+    }
+    StringBuilder buffer = new StringBuilder();
+    append(buffer, '-', prerelease);
+    append(buffer, '+', buildNumber);
+    String text = buffer.toString();
+    Integer index = suffixIndex.get(text);
+    if (index == null) {
+      index = suffixes.size();
+      suffixes.add(new Version(text, 0, 0, 0, prerelease, buildNumber));
+      suffixIndex.put(text, index);
+      ranks = null;
+    }
+    return index;
+  }
+
+  /**
+   * Append identifiers.
+   *
+   * @param buffer The buffer.
+   * @param separator The prefix.
+   * @param identifiers The identifiers.
+   */
+  private static void append(final StringBuilder buffer, final char separator,
+      final Identifier[] identifiers) {
+    for (int i = 0; i < identifiers.length; i++) {
+      buffer.append(i == 0 ? separator : '.').append(identifiers[i]);
+    }
+  }
+
+  /**
+   * The precedence rank of every suffix: suffixes that compare as equal share a rank.
+   *
+   * @return The precedence rank of every suffix.
+   */
+  private int[] ranks() {
+    int[] ranks = this.ranks;
+    if (ranks == null) {
+      Integer[] order = new Integer[suffixes.size()];
+      for (int i = 0; i < order.length; i++) {
+        order[i] = i;
+      }
+      Arrays.sort(order, (i, j) -> suffixes.get(i).compareIdentifiers(suffixes.get(j)));
+      ranks = new int[order.length];
+      for (int i = 1; i < order.length; i++) {
+        Version previous = suffixes.get(order[i - 1]);
+        ranks[order[i]] = ranks[order[i - 1]]
+            + (previous.compareIdentifiers(suffixes.get(order[i])) == 0 ? 0 : 1);
+      }
+      this.ranks = ranks;
+    }
+    return ranks;
+  }
+
+  /**
+   * Compare two slots.
+   *
+   * @param left The buffer offset of a slot.
+   * @param right The buffer offset of a slot.
+   * @param ranks The suffix ranks.
+   * @return A negative, zero or positive number.
+   */
+  private int compare(final int left, final int right, final int[] ranks) {
+    int result = Integer.compare(slots.getInt(left), slots.getInt(right));
+    if (result == 0) {
+      result = Integer.compare(slots.getInt(left + MINOR), slots.getInt(right + MINOR));
+      if (result == 0) {
+        result = Integer.compare(slots.getInt(left + INCREMENTAL),
+            slots.getInt(right + INCREMENTAL));
+        if (result == 0) {
+          result = Integer.compare(ranks[slots.getInt(left + SUFFIX)],
+              ranks[slots.getInt(right + SUFFIX)]);
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Compare a slot with a version.
+   *
+   * @param at The buffer offset of a slot.
+   * @param version The version.
+   * @return A negative, zero or positive number.
+   */
+  private int compare(final int at, final Version version) {
+    int result = Integer.compare(slots.getInt(at), version.getMajor());
+    if (result == 0) {
+      result = Integer.compare(slots.getInt(at + MINOR), version.getMinor());
+      if (result == 0) {
+        result = Integer.compare(slots.getInt(at + INCREMENTAL), version.getIncremental());
+        if (result == 0) {
+          result = suffixes.get(slots.getInt(at + SUFFIX)).compareIdentifiers(version);
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * True if a slot belongs to an interval set.
+   *
+   * @param at The buffer offset of a slot.
+   * @param intervals The interval set.
+   * @return True if the slot belongs to the interval set.
+   */
+  private boolean matches(final int at, final IntervalSet intervals) {
+    for (int i = 0; i < intervals.size(); i++) {
+      Version lower = intervals.lower(i);
+      if (lower != null) {
+        int result = compare(at, lower);
+        if (result < 0 || result == 0 && !intervals.lowerInclusive(i)) {
+          // intervals are sorted: below this one means below the next ones too
+          return false;
+        }
+      }
+      Version upper = intervals.upper(i);
+      if (upper == null) {
+        return true;
+      }
+      int result = compare(at, upper);
+      if (result < 0 || result == 0 && intervals.upperInclusive(i)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Stable merge sort of slots.
+   *
+   * @param src The slots to sort, a copy of dst.
+   * @param dst The sorted slots.
+   * @param from The first index, inclusive.
+   * @param to The last index, exclusive.
+   * @param ranks The suffix ranks.
+   */
+  private void sort(final int[] src, final int[] dst, final int from, final int to,
+      final int[] ranks) {
+    if (to - from < 2) {
+      return;
+    }
+    int mid = (from + to) >>> 1;
+    sort(dst, src, from, mid, ranks);
+    sort(dst, src, mid, to, ranks);
+    if (compare(src[mid - 1] * SLOT, src[mid] * SLOT, ranks) <= 0) {
+      System.arraycopy(src, from, dst, from, to - from);
+      return;
+    }
+    for (int i = from, p = from, q = mid; i < to; i++) {
+      if (q >= to || p < mid && compare(src[p] * SLOT, src[q] * SLOT, ranks) <= 0) {
+        dst[i] = src[p++];
+      } else {
+        dst[i] = src[q++];
+      }
+    }
+  }
+}
@@ -0,0 +1,78 @@
+/**
+ * Copyright (c) 2013 Edgar Espina
+ *
+ * This file is part of amd4j (https://github.com/jknack/amd4j)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jknack.semver.resolver;
+
+/**
+ * A term of the partial solution: a decision to select a package version or a term derived from
+ * an incompatibility.
+ *
+ * @author edgar.espina
+ * @since 0.1.1
+ */
+final class Assignment {
+
+  /**
+   * The assigned term.
+   */
+  final Term term;
+
+  /**
+   * The incompatibility the term was derived from or null for a decision.
+   */
+  final Incompatibility cause;
+
+  /**
+   * Number of decisions made before and including this assignment.
+   */
+  final int decisionLevel;
+
+  /**
+   * Position of this assignment in the partial solution.
+   */
+  final int index;
+
+  /**
+   * Creates a new {@link Assignment}.
+   *
+   * @param term The assigned term.
+   * @param cause The incompatibility the term was derived from or null for a decision.
+   * @param decisionLevel Number of decisions made before and including this assignment.
+   * @param index Position of this assignment in the partial solution.
+   */
+  Assignment(final Term term, final Incompatibility cause, final int decisionLevel,
+      final int index) {
+    this.term = term;
+    this.cause = cause;
+    this.decisionLevel = decisionLevel;
+    this.index = index;
+  }
+
+  /**
+   * True for a decision.
+   *
+   * @return True for a decision.
+   */
+  boolean isDecision() {
+    return cause == null;
+  }
+
+  @Override
+  public String toString() {
+    return decisionLevel + (isDecision() ? "? " : ": ") + term;
+  }
+}
@@ -0,0 +1,211 @@
+/**
+ * Copyright (c) 2013 Edgar Espina
+ *
+ * This file is part of amd4j (https://github.com/jknack/amd4j)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jknack.semver.resolver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A set of terms that can't all be true at the same time. The resolver learns new
+ * incompatibilities from conflicts, so the same dead end is never explored twice.
+ *
+ * @author edgar.espina
+ * @since 0.1.1
+ */
+public final class Incompatibility {
+
+  /**
+   * Why an incompatibility exists.
+   */
+  public enum Cause {
+    /**
+     * The root package must be selected.
+     */
+    ROOT,
+
+    /**
+     * No version of a package matches the constraint.
+     */
+    NO_VERSIONS,
+
+    /**
+     * A package version depends on another package.
+     */
+    DEPENDENCY,
+
+    /**
+     * Derived from two other incompatibilities during conflict resolution.
+     */
+    CONFLICT
+  }
+
+  /**
+   * The terms, at most one per package.
+   */
+  private final List<Term> terms;
+
+  /**
+   * Why the incompatibility exists.
+   */
+  private final Cause cause;
+
+  /**
+   * The first incompatibility it was derived from or null.
+   */
+  private final Incompatibility left;
+
+  /**
+   * The second incompatibility it was derived from or null.
+   */
+  private final Incompatibility right;
+
+  /**
+   * Creates a new {@link Incompatibility}. Terms of the same package are merged.
+   *
+   * @param terms The terms.
+   * @param cause Why the incompatibility exists.
+   * @param left The first incompatibility it was derived from or null.
+   * @param right The second incompatibility it was derived from or null.
+   */
+  Incompatibility(final List<Term> terms, final Cause cause, final Incompatibility left,
+      final Incompatibility right) {
+    this.terms = Collections.unmodifiableList(merge(terms));
+    this.cause = cause;
+    this.left = left;
+    this.right = right;
+  }
+
+  /**
+   * Creates a new {@link Incompatibility} from external facts.
+   *
+   * @param cause Why the incompatibility exists.
+   * @param terms The terms.
+   */
+  Incompatibility(final Cause cause, final Term... terms) {
+    this(Arrays.asList(terms), cause, null, null);
+  }
+
+  /**
+   * The terms, at most one per package.
+   *
+   * @return The terms.
+   */
+  public List<Term> terms() {
+    return terms;
+  }
+
+  /**
+   * Why the incompatibility exists.
+   *
+   * @return Why the incompatibility exists.
+   */
+  public Cause cause() {
+    return cause;
+  }
+
+  /**
+   * The incompatibilities a {@link Cause#CONFLICT} was derived from.
+   *
+   * @return The incompatibilities it was derived from or an empty list.
+   */
+  public List<Incompatibility> causes() {
+    if (left == null) {
+      return Collections.emptyList();
+    }
+    List<Incompatibility> causes = new ArrayList<Incompatibility>(2);
+    causes.add(left);
+    causes.add(right);
+    return causes;
+  }
+
+  /**
+   * True if this incompatibility means there is no solution: it has no terms or it only forbids
+   * the root package.
+   *
+   * @param root The root package.
+   * @return True if this incompatibility means there is no solution.
+   */
+  boolean isFailure(final String root) {
+    return terms.isEmpty()
+        || terms.size() == 1 && terms.get(0).isPositive() && terms.get(0).name().equals(root);
+  }
+
+  /**
+   * Intersect terms of the same package.
+   *
+   * @param terms The terms.
+   * @return The merged terms.
+   */
+  private static List<Term> merge(final List<Term> terms) {
+    if (terms.size() == 1
+        || terms.size() == 2 && !terms.get(0).name().equals(terms.get(1).name())) {
+      return new ArrayList<Term>(terms);
+    }
+    Map<String, Term> byName = new LinkedHashMap<String, Term>();
+    for (Term term : terms) {
+      Term existing = byName.get(term.name());
+      Term merged = existing == null ? term : existing.intersect(term);
+      // an empty positive term is never satisfied, keep the original
+      byName.put(term.name(), merged == null ? term : merged);
+    }
+    return new ArrayList<Term>(byName.values());
+  }
+
+  @Override
+  public String toString() {
+    if (cause == Cause.ROOT) {
+      Term root = terms.get(0);
+      return root.name() + " " + root.constraint() + " is required";
+    }
+    if (cause == Cause.NO_VERSIONS) {
+      Term term = terms.get(0);
+      return "no versions of " + term.name() + " match " + term.constraint();
+    }
+    if (cause == Cause.DEPENDENCY) {
+      Term depender = terms.get(0);
+      Term dependency = terms.get(1);
+      return depender.name() + " " + depender.constraint() + " depends on " + dependency.name()
+          + " " + dependency.constraint();
+    }
+    if (terms.isEmpty()) {
+      return "version solving failed";
+    }
+    if (terms.size() == 1) {
+      Term term = terms.get(0);
+      return term.name() + " " + term.constraint()
+          + (term.isPositive() ? " is forbidden" : " is required");
+    }
+    if (terms.size() == 2 && terms.get(0).isPositive() != terms.get(1).isPositive()) {
+      Term pos = terms.get(0).isPositive() ? terms.get(0) : terms.get(1);
+      Term neg = terms.get(0).isPositive() ? terms.get(1) : terms.get(0);
+      return pos.name() + " " + pos.constraint() + " requires " + neg.name() + " "
+          + neg.constraint();
+    }
+    StringBuilder buffer = new StringBuilder();
+    String sep = "";
+    for (Term term : terms) {
+      buffer.append(sep).append(term);
+      sep = ", ";
+    }
+    return "one of " + buffer + " must be false";
+  }
+}
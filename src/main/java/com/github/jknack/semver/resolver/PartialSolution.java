@@ -0,0 +1,262 @@
+/**
+ * Copyright (c) 2013 Edgar Espina
+ *
+ * This file is part of amd4j (https://github.com/jknack/amd4j)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jknack.semver.resolver;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.github.jknack.semver.Semver;
+
+/**
+ * The assignments made so far, in order, plus the accumulated term of each package.
+ *
+ * @author edgar.espina
+ * @since 0.1.1
+ */
+final class PartialSolution {
+
+  /**
+   * The assignments, in order.
+   */
+  private final List<Assignment> assignments = new ArrayList<Assignment>();
+
+  /**
+   * The assignments of each package, in order.
+   */
+  private final Map<String, List<Assignment>> byName = new HashMap<String, List<Assignment>>();
+
+  /**
+   * The selected version of each decided package.
+   */
+  private final Map<String, Semver> decisions = new LinkedHashMap<String, Semver>();
+
+  /**
+   * The intersection of the assignments of packages with at least one positive assignment.
+   */
+  private final Map<String, Term> positive = new HashMap<String, Term>();
+
+  /**
+   * The positive terms of packages without a decision.
+   */
+  private final Map<String, Term> undecided = new LinkedHashMap<String, Term>();
+
+  /**
+   * Packages whose undecided term changed, oldest first.
+   */
+  private final Deque<String> changes = new ArrayDeque<String>();
+
+  /**
+   * The intersection of the assignments of packages with negative assignments only.
+   */
+  private final Map<String, Term> negative = new HashMap<String, Term>();
+
+  /**
+   * Select a package version.
+   *
+   * @param name The package name.
+   * @param version The version.
+   */
+  void decide(final String name, final Semver version) {
+    decisions.put(name, version);
+    assign(new Term(name, version, true), null);
+  }
+
+  /**
+   * Add a term derived from an incompatibility.
+   *
+   * @param term The term.
+   * @param cause The incompatibility.
+   */
+  void derive(final Term term, final Incompatibility cause) {
+    assign(term, cause);
+  }
+
+  /**
+   * Append an assignment.
+   *
+   * @param term The term.
+   * @param cause The incompatibility or null for a decision.
+   */
+  private void assign(final Term term, final Incompatibility cause) {
+    Assignment assignment = new Assignment(term, cause, decisions.size(), assignments.size());
+    assignments.add(assignment);
+    List<Assignment> list = byName.get(term.name());
+    if (list == null) {
+      list = new ArrayList<Assignment>();
+      byName.put(term.name(), list);
+    }
+    list.add(assignment);
+    register(assignment.term);
+  }
+
+  /**
+   * Update the accumulated term of a package.
+   *
+   * @param term The new term.
+   */
+  private void register(final Term term) {
+    String name = term.name();
+    Term pos = positive.get(name);
+    if (pos != null) {
+      pos = pos.intersect(term);
+      positive.put(name, pos);
+    } else {
+      Term neg = negative.get(name);
+      Term accumulated = neg == null ? term : neg.intersect(term);
+      if (accumulated.isPositive()) {
+        negative.remove(name);
+        positive.put(name, accumulated);
+        pos = accumulated;
+      } else {
+        negative.put(name, accumulated);
+      }
+    }
+    if (pos != null && !decisions.containsKey(name)) {
+      undecided.put(name, pos);
+      changes.add(name);
+    } else {
+      undecided.remove(name);
+    }
+  }
+
+  /**
+   * Undo the assignments made after the given decision level.
+   *
+   * @param decisionLevel The decision level to go back to.
+   */
+  void backtrack(final int decisionLevel) {
+    Set<String> packages = new HashSet<String>();
+    while (!assignments.isEmpty()
+        && assignments.get(assignments.size() - 1).decisionLevel > decisionLevel) {
+      Assignment removed = assignments.remove(assignments.size() - 1);
+      String name = removed.term.name();
+      List<Assignment> list = byName.get(name);
+      list.remove(list.size() - 1);
+      packages.add(name);
+      if (removed.isDecision()) {
+        decisions.remove(name);
+      }
+    }
+    for (String name : packages) {
+      positive.remove(name);
+      negative.remove(name);
+      undecided.remove(name);
+      for (Assignment assignment : byName.get(name)) {
+        register(assignment.term);
+      }
+    }
+  }
+
+  /**
+   * How the accumulated term of the package relates to the given term.
+   *
+   * @param term A term.
+   * @return How the partial solution relates to the given term.
+   */
+  Term.Relation relation(final Term term) {
+    Term pos = positive.get(term.name());
+    if (pos != null) {
+      return pos.relation(term);
+    }
+    Term neg = negative.get(term.name());
+    if (neg != null) {
+      return neg.relation(term);
+    }
+    return Term.Relation.OVERLAPPING;
+  }
+
+  /**
+   * True if the partial solution satisfies the given term.
+   *
+   * @param term A term.
+   * @return True if the partial solution satisfies the given term.
+   */
+  boolean satisfies(final Term term) {
+    return relation(term) == Term.Relation.SUBSET;
+  }
+
+  /**
+   * Find the earliest assignment that, combined with the previous ones, satisfies the term.
+   *
+   * @param term A term satisfied by the partial solution.
+   * @return The earliest assignment that satisfies the term.
+   */
+  Assignment satisfier(final Term term) {
+    List<Assignment> list = byName.get(term.name());
+    if (list != null) {
+      Term assigned = null;
+      for (Assignment assignment : list) {
+        assigned = assigned == null ? assignment.term : assigned.intersect(assignment.term);
+        if (assigned == null || assigned.satisfies(term)) {
+          return assignment;
+        }
+      }
+    }
+    throw new IllegalStateException("Not satisfied: " + term);
+  }
+
+  /**
+   * The positive terms of packages without a decision.
+   *
+   * @return The positive terms of packages without a decision.
+   */
+  Collection<Term> unsatisfied() {
+    return undecided.values();
+  }
+
+  /**
+   * The positive term of a package without a decision.
+   *
+   * @param name The package name.
+   * @return The positive term or null if the package has a decision or no positive term.
+   */
+  Term unsatisfied(final String name) {
+    return undecided.get(name);
+  }
+
+  /**
+   * Remove and return the oldest package whose undecided term changed.
+   *
+   * @return The package name or null if there is no change.
+   */
+  String pollChange() {
+    return changes.poll();
+  }
+
+  /**
+   * The selected version of each decided package, in decision order.
+   *
+   * @return The selected versions.
+   */
+  Map<String, Semver> decisions() {
+    return decisions;
+  }
+
+  @Override
+  public String toString() {
+    return assignments.toString();
+  }
+}
@@ -0,0 +1,50 @@
+/**
+ * Copyright (c) 2013 Edgar Espina
+ *
+ * This file is part of amd4j (https://github.com/jknack/amd4j)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jknack.semver.resolver;
+
+import java.util.List;
+import java.util.Map;
+
+import com.github.jknack.semver.Semver;
+
+/**
+ * Source of package metadata for the {@link Resolver}. Answers are expected to be stable during
+ * a resolution, the resolver asks at most once per package and per package version.
+ *
+ * @author edgar.espina
+ * @since 0.1.1
+ */
+public interface Provider {
+
+  /**
+   * The available versions of a package, in any order.
+   *
+   * @param name The package name.
+   * @return The available versions or an empty list for an unknown package.
+   */
+  List<? extends Semver> versions(String name);
+
+  /**
+   * The dependencies of a package version.
+   *
+   * @param name The package name.
+   * @param version One of the available versions of the package.
+   * @return The version constraint of each dependency, by package name.
+   */
+  Map<String, ? extends Semver> dependencies(String name, Semver version);
+}
@@ -0,0 +1,101 @@
+/**
+ * Copyright (c) 2013 Edgar Espina
+ *
+ * This file is part of amd4j (https://github.com/jknack/amd4j)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jknack.semver.resolver;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Thrown when there is no solution. The message explains why, from the external facts up to the
+ * final conclusion.
+ *
+ * @author edgar.espina
+ * @since 0.1.1
+ */
+public class ResolutionException extends RuntimeException {
+
+  /**
+   * Default serial.
+   */
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * The incompatibility that proves there is no solution.
+   */
+  private final transient Incompatibility incompatibility;
+
+  /**
+   * Creates a new {@link ResolutionException}.
+   *
+   * @param incompatibility The incompatibility that proves there is no solution.
+   */
+  public ResolutionException(final Incompatibility incompatibility) {
+    super(explain(incompatibility));
+    this.incompatibility = incompatibility;
+  }
+
+  /**
+   * The incompatibility that proves there is no solution.
+   *
+   * @return The incompatibility that proves there is no solution.
+   */
+  public Incompatibility getIncompatibility() {
+    return incompatibility;
+  }
+
+  /**
+   * Explain a derived incompatibility, one line per derivation step.
+   *
+   * @param incompatibility The incompatibility.
+   * @return The explanation.
+   */
+  private static String explain(final Incompatibility incompatibility) {
+    List<String> lines = new ArrayList<String>();
+    explain(incompatibility, new IdentityHashMap<Incompatibility, Boolean>(), lines);
+    if (lines.isEmpty()) {
+      return incompatibility.toString();
+    }
+    StringBuilder buffer = new StringBuilder();
+    for (String line : lines) {
+      buffer.append(line).append('\n');
+    }
+    return buffer.append("So, version solving failed.").toString();
+  }
+
+  /**
+   * Collect the derivation steps of an incompatibility.
+   *
+   * @param incompatibility The incompatibility.
+   * @param seen Incompatibilities already explained.
+   * @param lines The derivation steps.
+   */
+  private static void explain(final Incompatibility incompatibility,
+      final Map<Incompatibility, Boolean> seen, final List<String> lines) {
+    List<Incompatibility> causes = incompatibility.causes();
+    if (causes.isEmpty() || seen.put(incompatibility, Boolean.TRUE) != null) {
+      return;
+    }
+    Incompatibility left = causes.get(0);
+    Incompatibility right = causes.get(1);
+    explain(left, seen, lines);
+    explain(right, seen, lines);
+    lines.add("Because " + left + " and " + right + ", " + incompatibility + ".");
+  }
+}
@@ -0,0 +1,489 @@
+/**
+ * Copyright (c) 2013 Edgar Espina
+ *
+ * This file is part of amd4j (https://github.com/jknack/amd4j)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jknack.semver.resolver;
+
+import static org.apache.commons.lang3.Validate.isTrue;
+import static org.apache.commons.lang3.Validate.notEmpty;
+import static org.apache.commons.lang3.Validate.notNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+import com.github.jknack.semver.Semver;
+
+/**
+ * A dependency resolver in the PubGrub style: unit propagation over incompatibilities, plus
+ * conflict-driven learning and non-chronological backjumping. Constraints are handled with the
+ * set operations of {@link Semver}, so any expression that can be {@link Semver#compile()
+ * compiled} works: ranges, relational operators, and/or expressions.
+ *
+ * <pre>
+ * Solution solution = new Resolver(provider).solve("app", Semver.create("1.0.0"));
+ * Semver version = solution.get("lib");
+ * </pre>
+ *
+ * A resolver is stateless and can be shared. Every solve asks the {@link Provider} at most once
+ * per package and per package version.
+ *
+ * @author edgar.espina
+ * @since 0.1.1
+ * @see <a href="https://github.com/dart-lang/pub/blob/master/doc/solver.md">PubGrub</a>
+ */
+public final class Resolver {
+
+  /**
+   * The versions of a package that match a term.
+   *
+   * @author edgar.espina
+   */
+  private static final class Candidates implements Comparable<Candidates> {
+
+    /**
+     * The term.
+     */
+    private final Term term;
+
+    /**
+     * The matching versions, newest first.
+     */
+    private final List<Semver> versions;
+
+    /**
+     * Creation order, breaks ties.
+     */
+    private final long order;
+
+    /**
+     * Creates a new {@link Candidates}.
+     *
+     * @param term The term.
+     * @param versions The matching versions, newest first.
+     * @param order Creation order.
+     */
+    public Candidates(final Term term, final List<Semver> versions, final long order) {
+      this.term = term;
+      this.versions = versions;
+      this.order = order;
+    }
+
+    @Override
+    public int compareTo(final Candidates that) {
+      int diff = Integer.compare(versions.size(), that.versions.size());
+      return diff == 0 ? Long.compare(order, that.order) : diff;
+    }
+  }
+
+  /**
+   * The state of a single resolution.
+   *
+   * @author edgar.espina
+   */
+  private static final class Solve {
+
+    /**
+     * The package metadata.
+     */
+    private final Provider provider;
+
+    /**
+     * The root package.
+     */
+    private final String root;
+
+    /**
+     * The root version.
+     */
+    private final Semver rootVersion;
+
+    /**
+     * The incompatibilities of each package.
+     */
+    private final Map<String, List<Incompatibility>> incompatibilities =
+        new HashMap<String, List<Incompatibility>>();
+
+    /**
+     * The available versions of each package, newest first.
+     */
+    private final Map<String, List<Semver>> versions = new HashMap<String, List<Semver>>();
+
+    /**
+     * Package versions whose dependencies were added already.
+     */
+    private final Map<String, Set<Semver>> expanded = new HashMap<String, Set<Semver>>();
+
+    /**
+     * Undecided packages, fewest matching versions first. Entries whose term is no longer the
+     * term of the package are dropped when polled.
+     */
+    private final PriorityQueue<Candidates> queue = new PriorityQueue<Candidates>();
+
+    /**
+     * Number of entries added to the queue.
+     */
+    private long queued;
+
+    /**
+     * The partial solution.
+     */
+    private final PartialSolution solution = new PartialSolution();
+
+    /**
+     * Number of decisions made so far.
+     */
+    private int decisions;
+
+    /**
+     * Creates a new {@link Solve}.
+     *
+     * @param provider The package metadata.
+     * @param root The root package.
+     * @param rootVersion The root version.
+     */
+    public Solve(final Provider provider, final String root, final Semver rootVersion) {
+      this.provider = provider;
+      this.root = root;
+      this.rootVersion = rootVersion;
+    }
+
+    /**
+     * Run the resolution.
+     *
+     * @return The solution.
+     */
+    public Solution run() {
+      add(new Incompatibility(Incompatibility.Cause.ROOT, new Term(root, rootVersion, false)));
+      String next = root;
+      while (next != null) {
+        propagate(next);
+        next = choose();
+      }
+      return new Solution(solution.decisions(), decisions);
+    }
+
+    /**
+     * Derive everything the incompatibilities imply, starting from the given package.
+     *
+     * @param name The package that changed.
+     */
+    private void propagate(final String name) {
+      // packages to visit, in insertion order without duplicates
+      Set<String> changed = new LinkedHashSet<String>();
+      changed.add(name);
+      while (!changed.isEmpty()) {
+        Iterator<String> it = changed.iterator();
+        String pkg = it.next();
+        it.remove();
+        List<Incompatibility> list = incompatibilities.get(pkg);
+        if (list == null) {
+          continue;
+        }
+        // newest incompatibilities first, they are more likely to be useful
+        for (int i = list.size() - 1; i >= 0; i--) {
+          Incompatibility incompatibility = list.get(i);
+          if (propagate(incompatibility, changed)) {
+            Incompatibility cause = resolve(incompatibility);
+            changed.clear();
+            propagate(cause, changed);
+            break;
+          }
+        }
+      }
+    }
+
+    /**
+     * Check a single incompatibility against the partial solution. If all terms but one are
+     * satisfied, the inverse of the remaining term is derived.
+     *
+     * @param incompatibility The incompatibility.
+     * @param changed Collect the package of the derived term, if any.
+     * @return True if every term is satisfied: a conflict.
+     */
+    private boolean propagate(final Incompatibility incompatibility, final Set<String> changed) {
+      Term unsatisfied = null;
+      for (Term term : incompatibility.terms()) {
+        Term.Relation relation = solution.relation(term);
+        if (relation == Term.Relation.DISJOINT) {
+          return false;
+        }
+        if (relation == Term.Relation.OVERLAPPING) {
+          if (unsatisfied != null) {
+            return false;
+          }
+          unsatisfied = term;
+        }
+      }
+      if (unsatisfied == null) {
+        return true;
+      }
+      solution.derive(unsatisfied.inverse(), incompatibility);
+      changed.add(unsatisfied.name());
+      return false;
+    }
+
+    /**
+     * Learn from a conflict: derive the incompatibility that caused it and backjump to the
+     * decision level where it is no longer satisfied.
+     *
+     * @param conflict An incompatibility satisfied by the partial solution.
+     * @return The root cause of the conflict.
+     */
+    private Incompatibility resolve(final Incompatibility conflict) {
+      Incompatibility incompatibility = conflict;
+      boolean learned = false;
+      while (!incompatibility.isFailure(root)) {
+        Term mostRecentTerm = null;
+        Assignment mostRecentSatisfier = null;
+        Term difference = null;
+        int previousSatisfierLevel = 1;
+        for (Term term : incompatibility.terms()) {
+          Assignment satisfier = solution.satisfier(term);
+          if (mostRecentSatisfier == null || mostRecentSatisfier.index < satisfier.index) {
+            if (mostRecentSatisfier != null) {
+              previousSatisfierLevel = Math.max(previousSatisfierLevel,
+                  mostRecentSatisfier.decisionLevel);
+            }
+            mostRecentTerm = term;
+            mostRecentSatisfier = satisfier;
+            difference = null;
+          } else {
+            previousSatisfierLevel = Math.max(previousSatisfierLevel, satisfier.decisionLevel);
+          }
+          if (mostRecentTerm == term) {
+            // the satisfier may allow more than the term: then an older assignment is needed
+            difference = mostRecentSatisfier.term.difference(mostRecentTerm);
+            if (difference != null) {
+              previousSatisfierLevel = Math.max(previousSatisfierLevel,
+                  solution.satisfier(difference.inverse()).decisionLevel);
+            }
+          }
+        }
+        if (previousSatisfierLevel < mostRecentSatisfier.decisionLevel
+            || mostRecentSatisfier.isDecision()) {
+          solution.backtrack(previousSatisfierLevel);
+          if (learned) {
+            add(incompatibility);
+          }
+          return incompatibility;
+        }
+        List<Term> terms = new ArrayList<Term>();
+        for (Term term : incompatibility.terms()) {
+          if (term != mostRecentTerm) {
+            terms.add(term);
+          }
+        }
+        for (Term term : mostRecentSatisfier.cause.terms()) {
+          if (!term.name().equals(mostRecentSatisfier.term.name())) {
+            terms.add(term);
+          }
+        }
+        if (difference != null) {
+          terms.add(difference.inverse());
+        }
+        incompatibility = new Incompatibility(terms, Incompatibility.Cause.CONFLICT,
+            incompatibility, mostRecentSatisfier.cause);
+        learned = true;
+      }
+      throw new ResolutionException(incompatibility);
+    }
+
+    /**
+     * Pick the next package to decide, the one with fewest matching versions, and select its
+     * newest matching version.
+     *
+     * @return The decided package or null if every package is decided.
+     */
+    private String choose() {
+      for (String name = solution.pollChange(); name != null; name = solution.pollChange()) {
+        Term term = solution.unsatisfied(name);
+        if (term != null) {
+          queue.add(candidates(term));
+        }
+      }
+      Candidates best = poll();
+      if (best == null) {
+        // safety net: pick up any package the queue missed
+        for (Term term : solution.unsatisfied()) {
+          queue.add(candidates(term));
+        }
+        best = poll();
+        if (best == null) {
+          return null;
+        }
+      }
+      Term next = best.term;
+      List<Semver> candidates = best.versions;
+      String name = next.name();
+      if (candidates.isEmpty()) {
+        add(new Incompatibility(Incompatibility.Cause.NO_VERSIONS, next));
+        return name;
+      }
+      Semver version = candidates.get(0);
+      Term selected = new Term(name, version, true);
+      boolean conflict = false;
+      Set<Semver> seen = expanded.get(name);
+      if (seen == null) {
+        seen = new HashSet<Semver>();
+        expanded.put(name, seen);
+      }
+      if (seen.add(version)) {
+        Map<String, ? extends Semver> dependencies = provider.dependencies(name, version);
+        if (dependencies != null) {
+          for (Map.Entry<String, ? extends Semver> dependency : dependencies.entrySet()) {
+            Incompatibility incompatibility = new Incompatibility(
+                Incompatibility.Cause.DEPENDENCY, selected,
+                new Term(dependency.getKey(), dependency.getValue(), false));
+            add(incompatibility);
+            Term dependencyTerm = incompatibility.terms().get(1);
+            Term required = dependencyTerm.inverse();
+            if (candidates(required).versions.isEmpty()) {
+              // look ahead: nothing satisfies the dependency, learn it now instead of deciding
+              // and backjumping later
+              Incompatibility none = new Incompatibility(Incompatibility.Cause.NO_VERSIONS,
+                  required);
+              add(none);
+              propagate(required.name());
+            }
+            // the dependency is forbidden already: don't select this version
+            conflict |= solution.satisfies(dependencyTerm);
+          }
+        }
+      }
+      if (!conflict) {
+        decisions++;
+        solution.decide(name, version);
+      }
+      return name;
+    }
+
+    /**
+     * Remove the undecided package with fewest matching versions.
+     *
+     * @return The package candidates or null if there is none.
+     */
+    private Candidates poll() {
+      Candidates candidates = queue.poll();
+      while (candidates != null && !isCurrent(candidates.term)) {
+        candidates = queue.poll();
+      }
+      return candidates;
+    }
+
+    /**
+     * True if the term is the current term of an undecided package.
+     *
+     * @param term A term.
+     * @return True if the term is the current term of an undecided package.
+     */
+    private boolean isCurrent(final Term term) {
+      return solution.unsatisfied(term.name()) == term;
+    }
+
+    /**
+     * The versions of a package that match a positive term, newest first.
+     *
+     * @param term A positive term.
+     * @return The matching versions.
+     */
+    private Candidates candidates(final Term term) {
+      List<Semver> matching = new ArrayList<Semver>();
+      Semver constraint = term.constraint();
+      for (Semver version : versions(term.name())) {
+        if (constraint.matches(version)) {
+          matching.add(version);
+        }
+      }
+      return new Candidates(term, matching, queued++);
+    }
+
+    /**
+     * The available versions of a package, newest first. Asks the provider once.
+     *
+     * @param name The package name.
+     * @return The available versions.
+     */
+    private List<Semver> versions(final String name) {
+      List<Semver> result = versions.get(name);
+      if (result == null) {
+        if (name.equals(root)) {
+          result = Collections.singletonList(rootVersion);
+        } else {
+          List<? extends Semver> available = provider.versions(name);
+          result = available == null ? new ArrayList<Semver>()
+              : new ArrayList<Semver>(available);
+          Collections.sort(result, Collections.reverseOrder());
+        }
+        versions.put(name, result);
+      }
+      return result;
+    }
+
+    /**
+     * Register an incompatibility under each of its packages.
+     *
+     * @param incompatibility The incompatibility.
+     */
+    private void add(final Incompatibility incompatibility) {
+      for (Term term : incompatibility.terms()) {
+        List<Incompatibility> list = incompatibilities.get(term.name());
+        if (list == null) {
+          list = new ArrayList<Incompatibility>();
+          incompatibilities.put(term.name(), list);
+        }
+        list.add(incompatibility);
+      }
+    }
+  }
+
+  /**
+   * The package metadata.
+   */
+  private final Provider provider;
+
+  /**
+   * Creates a new {@link Resolver}.
+   *
+   * @param provider The package metadata. Required.
+   */
+  public Resolver(final Provider provider) {
+    this.provider = notNull(provider, "The provider is required.");
+  }
+
+  /**
+   * Find a version for the root package and each of its transitive dependencies, such that
+   * every dependency constraint is satisfied. Newer versions are preferred.
+   *
+   * @param root The root package. Required.
+   * @param version The root version. Required.
+   * @return The solution.
+   * @throws ResolutionException If there is no solution.
+   */
+  public Solution solve(final String root, final Semver version) {
+    notEmpty(root, "The root package is required.");
+    notNull(version, "The root version is required.");
+    isTrue(version.isStatic(), "The root version must be a version: %s", version);
+    return new Solve(provider, root, version).run();
+  }
+}
@@ -0,0 +1,87 @@
+/**
+ * Copyright (c) 2013 Edgar Espina
+ *
+ * This file is part of amd4j (https://github.com/jknack/amd4j)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jknack.semver.resolver;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.github.jknack.semver.Semver;
+
+/**
+ * The outcome of a successful resolution: one version per package.
+ *
+ * @author edgar.espina
+ * @since 0.1.1
+ */
+public final class Solution {
+
+  /**
+   * The selected version of each package, in decision order.
+   */
+  private final Map<String, Semver> versions;
+
+  /**
+   * Number of decisions, backtracked ones included.
+   */
+  private final int decisions;
+
+  /**
+   * Creates a new {@link Solution}.
+   *
+   * @param versions The selected version of each package.
+   * @param decisions Number of decisions, backtracked ones included.
+   */
+  Solution(final Map<String, Semver> versions, final int decisions) {
+    this.versions = Collections.unmodifiableMap(new LinkedHashMap<String, Semver>(versions));
+    this.decisions = decisions;
+  }
+
+  /**
+   * The selected version of each package, root included, in decision order.
+   *
+   * @return The selected versions.
+   */
+  public Map<String, Semver> versions() {
+    return versions;
+  }
+
+  /**
+   * The selected version of a package.
+   *
+   * @param name The package name.
+   * @return The selected version or null if the package isn't part of the solution.
+   */
+  public Semver get(final String name) {
+    return versions.get(name);
+  }
+
+  /**
+   * Number of decisions made to find the solution, backtracked ones included.
+   *
+   * @return Number of decisions.
+   */
+  public int decisions() {
+    return decisions;
+  }
+
+  @Override
+  public String toString() {
+    return versions.toString();
+  }
+}
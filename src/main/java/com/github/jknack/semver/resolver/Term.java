@@ -0,0 +1,206 @@
+/**
+ * Copyright (c) 2013 Edgar Espina
+ *
+ * This file is part of amd4j (https://github.com/jknack/amd4j)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.jknack.semver.resolver;
+
+import static org.apache.commons.lang3.Validate.notEmpty;
+import static org.apache.commons.lang3.Validate.notNull;
+
+import com.github.jknack.semver.Semver;
+
+/**
+ * A statement about a package: it is selected at a version that matches the constraint
+ * (positive), or it is not selected at any of those versions (negative).
+ *
+ * @author edgar.espina
+ * @since 0.1.1
+ */
+public final class Term {
+
+  /**
+   * How the versions allowed by a term relate to the versions allowed by another term.
+   */
+  enum Relation {
+    /**
+     * Every version allowed by the first term is allowed by the second.
+     */
+    SUBSET,
+
+    /**
+     * No version is allowed by both terms.
+     */
+    DISJOINT,
+
+    /**
+     * Some versions are allowed by both terms.
+     */
+    OVERLAPPING
+  }
+
+  /**
+   * The package name.
+   */
+  private final String name;
+
+  /**
+   * The version constraint.
+   */
+  private final Semver constraint;
+
+  /**
+   * True for a positive term.
+   */
+  private final boolean positive;
+
+  /**
+   * Creates a new {@link Term}.
+   *
+   * @param name The package name. Required.
+   * @param constraint The version constraint. Required.
+   * @param positive True for a positive term.
+   */
+  public Term(final String name, final Semver constraint, final boolean positive) {
+    this.name = notEmpty(name, "The package name is required.");
+    // compiled once: set operations run on the intervals of the constraint
+    this.constraint = notNull(constraint, "The constraint is required.").compile();
+    this.positive = positive;
+  }
+
+  /**
+   * The package name.
+   *
+   * @return The package name.
+   */
+  public String name() {
+    return name;
+  }
+
+  /**
+   * The version constraint.
+   *
+   * @return The version constraint.
+   */
+  public Semver constraint() {
+    return constraint;
+  }
+
+  /**
+   * True for a positive term.
+   *
+   * @return True for a positive term.
+   */
+  public boolean isPositive() {
+    return positive;
+  }
+
+  /**
+   * The opposite term.
+   *
+   * @return The opposite term.
+   */
+  Term inverse() {
+    return new Term(name, constraint, !positive);
+  }
+
+  /**
+   * True if every version allowed by this term is allowed by the given one.
+   *
+   * @param term A term of the same package.
+   * @return True if this term satisfies the given one.
+   */
+  boolean satisfies(final Term term) {
+    return name.equals(term.name) && relation(term) == Relation.SUBSET;
+  }
+
+  /**
+   * How this term relates to the given one.
+   *
+   * @param term A term of the same package.
+   * @return How this term relates to the given one.
+   */
+  Relation relation(final Term term) {
+    if (term.positive) {
+      if (positive) {
+        if (constraint.isSubsetOf(term.constraint)) {
+          return Relation.SUBSET;
+        }
+        return overlaps(term) ? Relation.OVERLAPPING : Relation.DISJOINT;
+      }
+      return term.constraint.isSubsetOf(constraint) ? Relation.DISJOINT : Relation.OVERLAPPING;
+    }
+    if (positive) {
+      if (!overlaps(term)) {
+        return Relation.SUBSET;
+      }
+      return constraint.isSubsetOf(term.constraint) ? Relation.DISJOINT : Relation.OVERLAPPING;
+    }
+    return term.constraint.isSubsetOf(constraint) ? Relation.SUBSET : Relation.OVERLAPPING;
+  }
+
+  /**
+   * The versions allowed by both terms.
+   *
+   * @param term A term of the same package.
+   * @return The intersection or null if no version is allowed by both terms.
+   */
+  Term intersect(final Term term) {
+    if (positive != term.positive) {
+      Term pos = positive ? this : term;
+      Term neg = positive ? term : this;
+      return nonEmpty(pos.constraint.intersect(neg.constraint.complement()));
+    }
+    if (positive) {
+      return nonEmpty(constraint.intersect(term.constraint));
+    }
+    return new Term(name, constraint.union(term.constraint), false);
+  }
+
+  /**
+   * The versions allowed by this term but not by the given one.
+   *
+   * @param term A term of the same package.
+   * @return The difference or null if there is none.
+   */
+  Term difference(final Term term) {
+    return intersect(term.inverse());
+  }
+
+  /**
+   * True if the constraints of both terms have a version in common.
+   *
+   * @param term A term.
+   * @return True if the constraints of both terms have a version in common.
+   */
+  private boolean overlaps(final Term term) {
+    return constraint.intersect(term.constraint).isSatisfiable();
+  }
+
+  /**
+   * Creates a positive term or null for an empty constraint.
+   *
+   * @param constraint The constraint.
+   * @return A positive term or null.
+   */
+  private Term nonEmpty(final Semver constraint) {
+    return constraint.isSatisfiable() ? new Term(name, constraint, true) : null;
+  }
+
+  @Override
+  public String toString() {
+    return (positive ? "" : "not ") + name + " " + constraint;
+  }
+}
@@ -0,0 +1,143 @@
+package com.github.jknack.semver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+public class IntervalSetTest {
+
+  private static final String[] EXPRESSIONS = {"*", "1.2.3", "=1.2.3", ">1.2.3", ">=1.2.3",
+      "<1.2.3", "<=1.2.3", "~1.2.3", "~1.2", "~1", "~0.2.3", "1.2.x", "1.x", "1.x.x",
+      "1.0.0 - 2.9999.9999", ">=1.0.2 <2.1.2", ">1.0.2 <=2.3.4", "<1.0.0 || >=2.3.1 <2.4.5",
+      "<1.0.0 || >=2.3.1 <2.4.5 || >=2.5.2 <3.0.0", "1.3.4 || 1.3.5", "<2.0.0 || >=1.0.0",
+      ">=1.0.0 <1.0.0", "~1.2 || ~1.3 || 2.x", "<1.0.0-rc.1+build.1", ">=1.0.0-beta <1.0.0" };
+
+  private static final String[] VERSIONS = {"0.0.0", "0.1.2", "0.2.3", "0.2.9", "0.3.0",
+      "1", "1.0", "1.0.0-alpha", "1.0.0-beta", "1.0.0-beta.2", "1.0.0-rc.1", "1.0.0", "1.0.2",
+      "1.0.3", "1.0.5", "1.1", "1.2.0", "1.2.2", "1.2.3-beta", "1.2.3", "1.2.3+build", "1.2.4",
+      "1.2.9", "1.3", "1.3.4", "1.3.5", "1.3.6", "1.9", "2.0", "2.0.0-rc.1", "2.1.1", "2.1.2",
+      "2.3.0", "2.3.1", "2.3.4", "2.3.5", "2.4.4", "2.4.5", "2.4.6", "2.5.0", "2.5.2", "2.9",
+      "2.9999.9999", "3", "3.0.1", "10.0.0" };
+
+  @Test
+  public void compiledMatchesLikeSource() {
+    for (String expression : EXPRESSIONS) {
+      Semver semver = Semver.create(expression);
+      Semver compiled = semver.compile();
+      assertEquals(semver.text(), compiled.text());
+      assertEquals(semver.type(), compiled.type());
+      for (String version : VERSIONS) {
+        assertEquals(expression + " matches " + version, semver.matches(version),
+            compiled.matches(version));
+      }
+    }
+  }
+
+  @Test
+  public void notCompiled() {
+    Semver version = Semver.create("1.2.3");
+    assertSame(version, version.compile());
+
+    Semver url = Semver.create("http://asdf.com/asdf.tar.gz");
+    assertSame(url, url.compile());
+  }
+
+  @Test
+  public void normalize() {
+    assertEquals(1, intervals("<2.0.0 || >=1.0.0").size());
+    assertEquals("*", intervals("<2.0.0 || >=1.0.0").text());
+    assertEquals(">=1.2.3 <1.4.0", intervals("~1.2.3 || >=1.3.0 <1.4.0").text());
+    assertEquals(">=1.2.3 <1.3.0 || >=2.0.0 <3.0.0", intervals("2.x || ~1.2.3").text());
+    assertEquals("<1.0.0 || >=2.3.1 <2.4.5 || >=2.5.2 <3.0.0",
+        intervals(">=2.5.2 <3.0.0 || >=2.3.1 <2.4.5 || <1.0.0").text());
+    assertTrue(intervals(">=1.0.0 <1.0.0").isEmpty());
+    assertEquals("=1.2.3", intervals(">=1.2.3 <=1.2.3").text());
+    assertEquals(Semver.Type.EQ, intervals(">=1.2.3 <=1.2.3").type());
+  }
+
+  @Test
+  public void algebra() {
+    IntervalSet tilde = intervals("~1.5.3");
+    IntervalSet range = intervals(">=1.2.0 <2.0.0");
+    assertEquals(">=1.5.3 <1.6.0", tilde.intersect(range).text());
+    assertEquals(">=1.2.0 <2.0.0", tilde.union(range).text());
+    assertEquals("<1.5.3 || >=1.6.0", tilde.complement().text());
+    assertTrue(tilde.intersect(tilde.complement()).isEmpty());
+    assertEquals("*", tilde.union(tilde.complement()).text());
+    assertEquals("*", IntervalSet.EMPTY.complement().text());
+    assertTrue(IntervalSet.ALL.complement().isEmpty());
+    assertEquals("<1.2.3 || >1.2.3", intervals("1.2.3").complement().text());
+    assertFalse(intervals("<1.2.3").union(intervals(">1.2.3")).matches("1.2.3"));
+    assertTrue(intervals("<1.2.3").union(intervals(">=1.2.3")).matches("1.2.3"));
+  }
+
+  private static IntervalSet intervals(final String expression) {
+    return Semver.create(expression).intervals();
+  }
+
+  @Test
+  public void setAlgebra() {
+    for (String left : EXPRESSIONS) {
+      Semver a = Semver.create(left);
+      Semver complement = a.complement();
+      for (String right : EXPRESSIONS) {
+        Semver b = Semver.create(right);
+        Semver intersection = a.intersect(b);
+        Semver union = a.union(b);
+        boolean subset = true;
+        for (String version : VERSIONS) {
+          boolean inA = a.matches(version);
+          boolean inB = b.matches(version);
+          String message = left + " / " + right + " / " + version;
+          assertEquals(message, inA && inB, intersection.matches(version));
+          assertEquals(message, inA || inB, union.matches(version));
+          assertEquals(message, !inA, complement.matches(version));
+          subset &= !inA || inB;
+        }
+        if (a.isSubsetOf(b)) {
+          assertTrue(left + " in " + right, subset);
+        }
+        assertEquals(intersection.isSatisfiable(), intersection.intersect(a).isSatisfiable());
+      }
+    }
+  }
+
+  @Test
+  public void overlaps() {
+    Semver range = Semver.create(">=1.2.0 <2.0.0");
+    Semver tilde = Semver.create("~1.5");
+    assertTrue(range.intersect(tilde).isSatisfiable());
+    assertTrue(tilde.isSubsetOf(range));
+    assertFalse(range.isSubsetOf(tilde));
+    assertEquals(">=1.5 <2.0.0", range.intersect(tilde).text());
+    assertEquals(">=1.2.0 <2.0.0", range.union(tilde).text());
+    assertEquals("<1.2.0 || >=2.0.0", range.complement().text());
+
+    assertFalse(Semver.create(">2.0.0 <1.0.0").isSatisfiable());
+    assertFalse(Semver.create("~1.2").intersect(Semver.create("2.x")).isSatisfiable());
+    assertTrue(Semver.create("1.2.3").isSubsetOf(Semver.create("1.x || 3.x")));
+    assertFalse(Semver.create("*").complement().isSatisfiable());
+    assertTrue(Semver.create("<1.0.0").union(Semver.create(">=1.0.0")).isSubsetOf(Semver.ANY));
+  }
+
+  @Test
+  public void unsupportedSetAlgebra() {
+    Semver[] unsupported = {Semver.LATEST, Semver.create("http://asdf.com/asdf.tar.gz") };
+    for (Semver expr : unsupported) {
+      try {
+        expr.complement();
+        fail(expr.toString());
+      } catch (UnsupportedOperationException expected) {
+      }
+      try {
+        Semver.create("1.x").intersect(expr);
+        fail(expr.toString());
+      } catch (UnsupportedOperationException expected) {
+      }
+    }
+  }
+}
@@ -0,0 +1,87 @@
+package com.github.jknack.semver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+public class SemverCacheTest {
+
+  @Test
+  public void hitsAndMisses() {
+    SemverCache cache = new SemverCache(16);
+    Semver semver = cache.create("~1.2.3");
+    assertSame(semver, cache.create("~1.2.3"));
+    assertSame(semver, cache.create("~1.2.3"));
+    assertEquals(1, cache.misses());
+    assertEquals(2, cache.hits());
+    assertEquals(0, cache.evictions());
+    assertEquals(1, cache.size());
+    assertTrue(semver.matches("1.2.9"));
+  }
+
+  @Test
+  public void evictLeastRecentlyUsed() {
+    SemverCache cache = new SemverCache(1);
+    Semver first = cache.create("1.0.0");
+    cache.create("2.0.0");
+    assertEquals(1, cache.size());
+    assertEquals(1, cache.evictions());
+    assertNotSame(first, cache.create("1.0.0"));
+    assertEquals(3, cache.misses());
+  }
+
+  @Test
+  public void bounded() {
+    SemverCache cache = new SemverCache(100);
+    for (int i = 0; i < 1000; i++) {
+      cache.create("1.0." + i);
+    }
+    assertEquals(100, cache.size());
+    assertEquals(900, cache.evictions());
+  }
+
+  @Test
+  public void invalidExpressionsAreNotCached() {
+    SemverCache cache = new SemverCache(16);
+    try {
+      cache.create("a.0.0");
+      fail("expression: 'a.0.0' MUST fail");
+    } catch (IllegalArgumentException ex) {
+      assertEquals(0, cache.size());
+    }
+  }
+
+  @Test
+  public void clear() {
+    SemverCache cache = new SemverCache(16);
+    cache.create("1.0.0");
+    cache.clear();
+    assertEquals(0, cache.size());
+    assertEquals(1, cache.misses());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void invalidCapacity() {
+    new SemverCache(0);
+  }
+
+  @Test
+  public void installed() {
+    SemverCache cache = new SemverCache(16);
+    Semver.setCache(cache);
+    try {
+      assertTrue(Semver.create(">=1.0.2 <2.1.2").matches("1.1"));
+      assertTrue(Semver.create(">=1.0.2 <2.1.2").matches("1.1"));
+      assertEquals(2, cache.size());
+      assertEquals(2, cache.hits());
+    } finally {
+      Semver.setCache(null);
+    }
+    assertNull(Semver.getCache());
+  }
+}
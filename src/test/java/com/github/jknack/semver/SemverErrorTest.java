@@ -1,8 +1,12 @@
 package com.github.jknack.semver;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.util.BitSet;
+
 import org.junit.Test;
 
 public class SemverErrorTest {
@@ -47,6 +51,81 @@ public class SemverErrorTest {
     execute(runnable("0.0.1 ||"), "found: 'eof', expected: '0-9+, =, <, <=, >, >= or ~'");
   }
 
+  @Test
+  public void trailingGarbage() {
+    execute(runnable("2/0*"), "found: '/', expected: '||'");
+    execute(runnable("1.0.0 || 2.0.0>"), "found: '>', expected: '||'");
+  }
+
+  @Test
+  public void tryParse() {
+    String[] invalid = {"a.0.0", "x.0.0", "0.#.0", "0.0.^", "-0.0.1", "0.0.1 -", " 0.0.1 - ",
+        "0.0.1 |", "0.0.1 ||", "2/0*", "1.0.0 || 2.0.0>", "99999999999.0.0", "1.2x.0",
+        "http://a b", "git://github.com/user/project.git#a^b" };
+    for (String expression : invalid) {
+      ParseResult result = Semver.tryParse(expression);
+      assertFalse(expression, result.isValid());
+      assertEquals(null, result.orElse(null));
+      try {
+        Semver.create(expression);
+        fail("expression: '" + expression + "' MUST fail");
+      } catch (IllegalArgumentException ex) {
+        assertEquals(ex.getClass(), result.exception().getClass());
+        assertEquals(ex.getMessage(), result.getMessage());
+        assertEquals(ex.getMessage(), result.toString());
+        if (ex instanceof SemverParseException) {
+          assertEquals(((SemverParseException) ex).getPosition(), result.getPosition());
+        }
+      }
+    }
+
+    ParseResult syntax = Semver.tryParse("1.0.0 || 2.0.0>");
+    assertEquals(SemverMetrics.Failure.SYNTAX, syntax.getFailure());
+    assertEquals(14, syntax.getPosition());
+    assertEquals("||", syntax.getExpected());
+
+    ParseResult number = Semver.tryParse(" 1.99999999999.0");
+    assertEquals(SemverMetrics.Failure.NUMBER, number.getFailure());
+    assertEquals(3, number.getPosition());
+    assertEquals(null, number.getExpected());
+
+    ParseResult url = Semver.tryParse("http://a b");
+    assertEquals(SemverMetrics.Failure.URL, url.getFailure());
+    assertEquals(7, url.getPosition());
+    assertEquals("Illegal character in authority at index 7: http://a b", url.getMessage());
+
+    ParseResult valid = Semver.tryParse("~1.2.3");
+    assertTrue(valid.isValid());
+    assertEquals("~1.2.3", valid.get().text());
+    assertEquals(-1, valid.getPosition());
+    assertEquals(null, valid.getFailure());
+    assertEquals(null, valid.getMessage());
+    assertEquals(2147483647, ((Version) Semver.tryParse("2147483647").get()).getMajor());
+  }
+
+  @Test
+  public void malformedUrl() {
+    execute(runnable("http://a%zz"), "Malformed escape pair at index 8: http://a%zz");
+    execute(runnable("http://[bad"), "Expected closing bracket for IPv6 address at index 11: "
+        + "http://[bad");
+    execute(runnable("http://a#b#c"), "Illegal character in fragment at index 10: http://a#b#c");
+    assertEquals(10, Semver.tryParse("http://a#b#c").getPosition());
+    assertEquals("{}", Semver.validate(new String[]{"http://a%zz", "http://[bad",
+        "http://a#b#c" }).toString());
+  }
+
+  @Test(expected = SemverParseException.class)
+  public void tryParseGet() {
+    Semver.tryParse("1.0.0 |").get();
+  }
+
+  @Test
+  public void validate() {
+    BitSet valid = Semver.validate(new String[]{"1.2.3", "a.b.c", null, "~1.2 || >=2.0.0", "",
+        "1.0.0 ||", "http://asdf.com/asdf.tar.gz" });
+    assertEquals("{0, 3, 4, 6}", valid.toString());
+  }
+
   private Runnable runnable(final String expression) {
     return new Runnable() {
       @Override
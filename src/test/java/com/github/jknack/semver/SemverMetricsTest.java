@@ -0,0 +1,110 @@
+package com.github.jknack.semver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class SemverMetricsTest {
+
+  @After
+  public void reset() {
+    Semver.setMetrics(null);
+    Semver.setCache(null);
+  }
+
+  @Test
+  public void noopByDefault() {
+    assertSame(SemverMetrics.NOOP, Semver.getMetrics());
+  }
+
+  @Test
+  public void record() {
+    RecordingSemverMetrics metrics = new RecordingSemverMetrics();
+    Semver.setMetrics(metrics);
+
+    Semver tilde = Semver.create("~1.2.3");
+    Semver.create("1.2.3");
+    Semver.create(new StringBuilder("1.0.0 - 2.0.0"));
+    assertTrue(tilde.matches("1.2.9"));
+    assertTrue(!tilde.matches("2.0.0"));
+    failWith("1.2.3/4");
+    failWith("99999999999.0.0");
+    failWith("http://a b");
+
+    assertEquals(1, metrics.parses(Semver.Type.TILDE));
+    assertEquals(3, metrics.parses(Semver.Type.STATIC));
+    assertEquals(1, metrics.parses(Semver.Type.RANGE));
+    assertEquals(0, metrics.parses(Semver.Type.OR));
+    assertEquals(2, metrics.stringMatches(Semver.Type.TILDE));
+    assertEquals(1, metrics.stringMatched(Semver.Type.TILDE));
+    assertEquals(1, metrics.failures(SemverMetrics.Failure.SYNTAX));
+    assertEquals(1, metrics.failures(SemverMetrics.Failure.NUMBER));
+    assertEquals(1, metrics.failures(SemverMetrics.Failure.URL));
+
+    long samples = 0;
+    for (long count : metrics.latencies(Semver.Type.STATIC)) {
+      samples += count;
+    }
+    assertEquals(3, samples);
+    assertTrue(metrics.latency(Semver.Type.STATIC, 0.5) > 0);
+    assertTrue(metrics.latency(Semver.Type.STATIC, 0.5) <= metrics.latency(Semver.Type.STATIC, 1));
+    assertEquals(0, metrics.latency(Semver.Type.OR, 0.99));
+  }
+
+  @Test
+  public void cache() {
+    RecordingSemverMetrics metrics = new RecordingSemverMetrics();
+    Semver.setMetrics(metrics);
+    Semver.setCache(new SemverCache(1));
+    Semver.create("1.0.0");
+    Semver.create("1.0.0");
+    Semver.create("2.0.0");
+    assertEquals(1, metrics.cacheHits());
+    assertEquals(2, metrics.cacheMisses());
+    assertEquals(1, metrics.cacheEvictions());
+    assertEquals(2, metrics.parses(Semver.Type.STATIC));
+  }
+
+  @Test
+  public void publish() {
+    RecordingSemverMetrics metrics = new RecordingSemverMetrics();
+    Semver.setMetrics(metrics);
+    Semver.create(">=1.0.0").matches("1.0.0");
+    failWith("?");
+    final Map<String, Long> counters = new LinkedHashMap<String, Long>();
+    final Map<String, long[]> histograms = new LinkedHashMap<String, long[]>();
+    metrics.publish(new RecordingSemverMetrics.Sink() {
+      @Override
+      public void counter(final String name, final String tag, final long value) {
+        counters.put(name + "{" + tag + "}", value);
+      }
+
+      @Override
+      public void histogram(final String name, final String tag, final long[] buckets) {
+        histograms.put(name + "{" + tag + "}", buckets);
+      }
+    });
+    assertEquals("{semver.parse{GT_EQ}=1, semver.match.string{GT_EQ}=1, "
+        + "semver.match.string.true{GT_EQ}=1, semver.parse{STATIC}=1, "
+        + "semver.parse.error{SYNTAX}=1, semver.cache.hit{null}=0, "
+        + "semver.cache.miss{null}=0, semver.cache.eviction{null}=0}", counters.toString());
+    assertEquals("[semver.parse.nanos{GT_EQ}, semver.parse.nanos{STATIC}]",
+        histograms.keySet().toString());
+    assertEquals("RecordingSemverMetrics[GT_EQ=1, STATIC=1]", metrics.toString());
+  }
+
+  private static void failWith(final String input) {
+    try {
+      Semver.create(input);
+      fail(input);
+    } catch (IllegalArgumentException expected) {
+    }
+  }
+}
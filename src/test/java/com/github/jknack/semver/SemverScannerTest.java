@@ -0,0 +1,109 @@
+package com.github.jknack.semver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class SemverScannerTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  @Test
+  public void lines() {
+    String input = "1.0.0\n~1.2.3\r\n\n  1.2.3/4\n>=1.0 <2.0\n99999999999.0.0\n1.x";
+    SemverScanner.Result result = SemverScanner.lines().scan(input);
+    assertTrue(result.hasErrors());
+    List<Semver> versions = result.versions();
+    assertEquals(4, versions.size());
+    assertEquals("1.0.0", versions.get(0).text());
+    assertEquals("~1.2.3", versions.get(1).text());
+    assertEquals(">=1.0 <2.0", versions.get(2).text());
+    assertEquals("1.x", versions.get(3).text());
+    assertEquals(1, result.line(0));
+    assertEquals(2, result.line(1));
+    assertEquals(5, result.line(2));
+    assertEquals(7, result.line(3));
+
+    List<SemverScanner.ParseError> errors = result.errors();
+    assertEquals(2, errors.size());
+    SemverScanner.ParseError error = errors.get(0);
+    assertEquals(4, error.getLine());
+    assertEquals(8, error.getColumn());
+    assertEquals(input.indexOf('/'), error.getOffset());
+    assertEquals("1.2.3/4", error.getText());
+    assertEquals("found: '/', expected: '||'", error.getMessage());
+    assertEquals("4:8: found: '/', expected: '||'", error.toString());
+
+    error = errors.get(1);
+    assertEquals(6, error.getLine());
+    assertEquals(1, error.getColumn());
+    assertEquals(input.indexOf("999"), error.getOffset());
+  }
+
+  @Test
+  public void chunksKeepInputOrder() {
+    StringBuilder input = new StringBuilder();
+    for (int i = 0; i < 2000; i++) {
+      input.append(i % 97 == 0 ? "bad" + i : i + "." + i % 7 + "." + i % 3).append('\n');
+    }
+    SemverScanner sequential = SemverScanner.lines();
+    SemverScanner parallel = SemverScanner.lines().chunkSize(16).pool(new ForkJoinPool(4));
+    SemverScanner.Result expected = sequential.scan(input);
+    SemverScanner.Result result = parallel.scan(input);
+    assertEquals(2000 - 21, result.versions().size());
+    assertEquals(expected.versions(), result.versions());
+    for (int i = 0; i < result.versions().size(); i++) {
+      int line = result.line(i);
+      assertEquals(expected.line(i), line);
+      assertEquals(line - 1, ((Version) result.versions().get(i)).getMajor());
+    }
+    assertEquals(21, result.errors().size());
+    for (int i = 0; i < 21; i++) {
+      SemverScanner.ParseError error = result.errors().get(i);
+      assertEquals(i * 97 + 1, error.getLine());
+      assertEquals("bad" + i * 97, error.getText());
+      assertEquals(input.indexOf("bad" + i * 97 + "\n"), error.getOffset());
+      assertEquals(expected.errors().get(i).toString(), error.toString());
+    }
+  }
+
+  @Test
+  public void bytes() {
+    String csv = "1.0.0,http://example.com/caf\u00e9.tgz,<=2.0,1.0.0 ||";
+    byte[] bytes = ("junk" + csv).getBytes(StandardCharsets.UTF_8);
+    ByteBuffer buffer = ByteBuffer.wrap(bytes);
+    buffer.position(4);
+    SemverScanner.Result result = SemverScanner.delimitedBy(',').chunkSize(4).scan(buffer);
+    assertEquals(4, buffer.position());
+    assertEquals(3, result.versions().size());
+    assertEquals("http://example.com/caf\u00e9.tgz", result.versions().get(1).text());
+    assertEquals(1, result.errors().size());
+    assertEquals(4, result.errors().get(0).getLine());
+    assertEquals(3, result.line(2));
+  }
+
+  @Test
+  public void path() throws Exception {
+    File file = folder.newFile("versions.txt");
+    Files.write(file.toPath(), "1.0.0\n2.0.0\n\n".getBytes(StandardCharsets.US_ASCII));
+    SemverScanner.Result result = SemverScanner.lines().scan(file.toPath());
+    assertFalse(result.hasErrors());
+    assertEquals(2, result.versions().size());
+    assertEquals("2 versions, 0 errors", result.toString());
+
+    assertEquals(0, SemverScanner.lines().scan(folder.newFile("empty.txt").toPath()).versions()
+        .size());
+  }
+}
@@ -3,6 +3,20 @@ package com.github.jknack.semver;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.junit.Test;
 
@@ -123,6 +137,29 @@ public class SemverTest {
     assertEquals("git://github.com/user/project.git#commit-ish",
         Semver.create("git://github.com/user/project.git#commit-ish")
             .toString());
+
+    Semver url = Semver.create("https://GitHub.com/User/project.git");
+    assertEquals("GitHub.com", ((UrlExpression) url).uri().getHost());
+    assertEquals("https://GitHub.com/User/project.git", url.text());
+    assertEquals(Semver.Type.STATIC, Semver.create("1.2.3").type());
+  }
+
+  @Test
+  public void uriHostIsCaseInsensitive() {
+    Semver url = Semver.create("https://GitHub.com/User/project.git");
+    assertTrue(url.matches(Semver.create("https://github.com/User/project.git")));
+    assertTrue(url.matches("https://GITHUB.COM/User/project.git"));
+    assertTrue(Semver.create("git://Host:8080/p.git#Tag").matches("git://host:8080/p.git#Tag"));
+    // user info, path and fragment keep their case
+    assertFalse(url.matches(Semver.create("https://github.com/user/project.git")));
+    assertFalse(Semver.create("https://Me@github.com/p.git").matches(
+        Semver.create("https://me@github.com/p.git")));
+    assertFalse(Semver.create("git://host/p.git#Tag").matches("git://host/p.git#tag"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void badUri() {
+    Semver.create("git://github.com/user/project git");
   }
 
   @Test
@@ -231,4 +268,255 @@ public class SemverTest {
     assertTrue(Semver.create("<1.3.7+build.11.e0f985a").matches("1.3.7+build"));
     assertTrue(Semver.create("<1.3.7+build.11.e0f985a").matches("1.3.7+build.2.b8f12d7"));
   }
+
+  @Test
+  public void compareTo() {
+    assertTrue(Semver.create("1.2.3").compareTo(Semver.create("1.2.4")) < 0);
+    assertTrue(Semver.create("1.3.0").compareTo(Semver.create("1.2.9")) > 0);
+    assertTrue(Semver.create("2.0.0").compareTo(Semver.create("1.99.99")) > 0);
+    assertEquals(0, Semver.create("1.2").compareTo(Semver.create("1.2.0")));
+    assertTrue(Semver.create("1.2.3-beta").compareTo(Semver.create("1.2.3")) < 0);
+    assertTrue(Semver.create("1.2.3").compareTo(Semver.create("1.2.3-beta")) > 0);
+    assertTrue(Semver.create("1.2.3+build").compareTo(Semver.create("1.2.3")) > 0);
+    // qualifiers too large for a packed key
+    assertTrue(Semver.create("1048576.0.0").compareTo(Semver.create("1048575.9.9")) > 0);
+    assertTrue(Semver.create("1.2.3").compareTo(Semver.create("20130101.0.0")) < 0);
+    assertTrue(Semver.create("1.2097152.0").compareTo(Semver.create("1.2097151.0")) > 0);
+    assertEquals(0, Semver.create("1.2.2097152").compareTo(Semver.create("1.2.2097152")));
+  }
+
+  @Test
+  public void prereleaseIdentifiers() {
+    assertTrue(Semver.create("<1.0.0-beta.11").matches("1.0.0-beta.9"));
+    assertTrue(Semver.create("<1.0.0-beta").matches("1.0.0-beta.9"));
+    assertTrue(Semver.create("<1.0.0-beta").matches("1.0.0-alpha"));
+    assertTrue(Semver.create("<1.0.0-alpha").matches("1.0.0-1"));
+    assertTrue(Semver.create("=1.0.0-rc.007").matches("1.0.0-rc.7"));
+    // numbers larger than a long
+    assertTrue(Semver.create(">1.0.0-SNAPSHOT.2147483648").matches("1.0.0-SNAPSHOT.2147483649"));
+    assertTrue(Semver.create(">1.0.0-nightly.99999999999999999999")
+        .matches("1.0.0-nightly.100000000000000000000"));
+    assertTrue(Semver.create(">1.0.0-nightly.99999999999999999998")
+        .matches("1.0.0-nightly.0099999999999999999999"));
+    assertTrue(Semver.create("<1.0.0-nightly.a").matches("1.0.0-nightly.99999999999999999999"));
+  }
+
+  @Test
+  public void sort() {
+    List<String> versions = Arrays.asList("1.0.0", "0.1.2", "1.0.0-beta", "2.0", "1.0", "0.9.9",
+        "1.0.0-alpha.1", "v1.2.3", "1.0.0+build.1");
+    List<String> expected = new ArrayList<String>(versions);
+    Collections.sort(expected, Semver.DESC);
+
+    List<String> desc = new ArrayList<String>(versions);
+    Semver.sortDescending(desc);
+    assertEquals(expected, desc);
+    assertEquals(Arrays.asList("2.0", "v1.2.3", "1.0.0+build.1", "1.0.0", "1.0", "1.0.0-beta",
+        "1.0.0-alpha.1", "0.9.9", "0.1.2"), desc);
+
+    String[] parallel = versions.toArray(new String[versions.size()]);
+    Semver.parallelSortDescending(parallel);
+    assertEquals(expected, Arrays.asList(parallel));
+
+    List<String> asc = new ArrayList<String>(versions);
+    Semver.sortAscending(asc);
+    assertEquals(Arrays.asList("0.1.2", "0.9.9", "1.0.0-alpha.1", "1.0.0-beta", "1.0.0", "1.0",
+        "1.0.0+build.1", "v1.2.3", "2.0"), asc);
+
+    parallel = versions.toArray(new String[versions.size()]);
+    Semver.parallelSortAscending(parallel);
+    assertEquals(asc, Arrays.asList(parallel));
+  }
+
+  @Test
+  public void satisfying() {
+    List<Semver> candidates = new ArrayList<Semver>();
+    for (String version : new String[]{"1.2.3", "0.9.0", "1.3.0-beta", "2.4.4", "1.2.9",
+        "2.5.2", "1.0.0", "3.0.0", "2.3.0" }) {
+      candidates.add(Semver.create(version));
+    }
+    Semver[] sorted = candidates.toArray(new Semver[candidates.size()]);
+    Arrays.sort(sorted);
+
+    String[][] cases = {
+        {"~1.2.3", "1.3.0-beta", "1.2.3" },
+        {"~1.2.3 <1.3.0-alpha", "1.2.9", "1.2.3" },
+        {"1.x", "1.3.0-beta", "1.0.0" },
+        {"<1.0.0 || >=2.3.1 <2.4.5 || >=2.5.2 <3.0.0", "2.5.2", "0.9.0" },
+        {">=2.3.1 <2.4.5", "2.4.4", "2.4.4" },
+        {">=3.0.0", "3.0.0", "3.0.0" },
+        {"*", "3.0.0", "0.9.0" },
+        {"1.2.3", "1.2.3", "1.2.3" },
+        {"~4.0.0", null, null },
+        {"<0.9.0", null, null }
+    };
+    for (String[] test : cases) {
+      Semver semver = Semver.create(test[0]);
+      assertEquals(test[0], test[1], text(semver.maxSatisfying(candidates)));
+      assertEquals(test[0], test[2], text(semver.minSatisfying(candidates)));
+      assertEquals(test[0], test[1], text(semver.maxSatisfying(sorted)));
+      assertEquals(test[0], test[2], text(semver.minSatisfying(sorted)));
+    }
+  }
+
+  @Test
+  public void satisfyingNotAVersion() {
+    Semver[] sorted = {Semver.create("1.0.0"), Semver.create("~1.2.3") };
+    for (String expr : new String[]{"~1.0.0", "http://asdf.com/asdf.tar.gz" }) {
+      try {
+        Semver.create(expr).maxSatisfying(sorted);
+        fail(expr);
+      } catch (IllegalArgumentException ex) {
+        assertEquals("Not a version: ~1.2.3", ex.getMessage());
+      }
+      try {
+        Semver.create(expr).minSatisfying(sorted);
+        fail(expr);
+      } catch (IllegalArgumentException ex) {
+        assertEquals("Not a version: ~1.2.3", ex.getMessage());
+      }
+    }
+  }
+
+  private static String text(final Semver semver) {
+    return semver == null ? null : semver.text();
+  }
+
+  @Test
+  public void chains() {
+    StringBuilder expression = new StringBuilder("0.0.0");
+    for (int i = 1; i < 5000; i++) {
+      expression.append(" || ").append(i).append(".0.0");
+    }
+    Semver semver = Semver.create(expression.toString());
+    assertEquals(expression.toString(), semver.toString());
+    assertTrue(semver.matches("4999.0.0"));
+    assertFalse(semver.matches("4999.0.1"));
+    assertTrue(semver.compile().matches("2500.0.0"));
+
+    assertEquals(">=1.0.0 <2.0.0 >1.2.0", Semver.create(">=1.0.0 <2.0.0 >1.2.0").toString());
+    assertTrue(Semver.create(">=1.0.0 <2.0.0 >1.2.0").matches("1.2.1"));
+    assertFalse(Semver.create(">=1.0.0 <2.0.0 >1.2.0").matches("1.2.0"));
+    assertTrue(Semver.create("1.0.0 - 1.5.0 >1.2.0").matches("1.5.0"));
+    assertFalse(Semver.create("1.0.0 - 1.5.0 >1.2.0").matches("1.1.0"));
+  }
+
+  @Test
+  public void equalsAndHashCode() {
+    String[][] equal = {{"1.2", "1.2.0" }, {"v1.2.3", "1.2.3" }, {"1.0.0-rc.007", "1.0.0-rc.7" },
+        {"1.0.0-beta+0", "1.0.0-beta+00" } };
+    for (String[] pair : equal) {
+      Semver left = Semver.create(pair[0]);
+      Semver right = Semver.create(pair[1]);
+      assertEquals(left, right);
+      assertEquals(left.hashCode(), right.hashCode());
+    }
+    Set<Semver> versions = new HashSet<Semver>();
+    versions.add(Semver.create("1.2"));
+    assertTrue(versions.contains(Semver.create("1.2.0")));
+    assertFalse(versions.contains(Semver.create("1.2.0-beta")));
+  }
+
+  @Test
+  public void builder() {
+    Version version = Version.builder().major(1).minor(2).incremental(3)
+        .prerelease(Identifier.of("beta"), Identifier.of("2")).buildNumber(Identifier.of("b1"))
+        .build();
+    assertEquals("1.2.3-beta.2+b1", version.text());
+    assertEquals(Semver.create("1.2.3-beta.2+b1"), version);
+    assertEquals("v1.2", Version.builder().text("v1.2").major(1).minor(2).build().text());
+  }
+
+  @Test
+  public void createFromRegions() {
+    assertEquals(">=1.2.3 <2.0.0",
+        Semver.create(new StringBuilder(" >=1.2.3 <2.0.0 ")).text());
+    assertEquals("1.2.3", Semver.create(new StringBuilder("  1.2.3\n")).text());
+
+    char[] chars = "1.0.0,~1.2.3,2.0.0".toCharArray();
+    Semver tilde = Semver.create(chars, 6, 6);
+    assertEquals(Semver.Type.TILDE, tilde.type());
+    assertEquals("~1.2.3", tilde.text());
+    assertEquals("2.0.0", Semver.create(chars, 13, 5).text());
+
+    ByteBuffer buffer = ByteBuffer.wrap("1.0.0\n 1.x \n2.0.0".getBytes(StandardCharsets.US_ASCII));
+    buffer.position(6).limit(11);
+    Semver x = Semver.create(buffer);
+    assertEquals(Semver.Type.X_RANGE, x.type());
+    assertTrue(x.matches("1.9.9"));
+    assertEquals(6, buffer.position());
+    assertEquals(11, buffer.limit());
+
+    ByteBuffer direct = ByteBuffer.allocateDirect(16);
+    direct.put("1.2.3-beta".getBytes(StandardCharsets.US_ASCII)).flip();
+    assertEquals(Semver.create("1.2.3-beta"), Semver.create(direct));
+
+    String url = "http://example.com/caf\u00e9.tgz";
+    Semver utf8 = Semver.create(ByteBuffer.wrap(url.getBytes(StandardCharsets.UTF_8)));
+    assertEquals(Semver.Type.URL, utf8.type());
+    assertEquals(url, utf8.text());
+
+    assertEquals(Semver.ANY, Semver.create(new char[]{' ', ' ' }, 0, 2));
+  }
+
+  @Test
+  public void streams() {
+    String[] versions = new String[1000];
+    for (int i = 0; i < versions.length; i++) {
+      versions[i] = i % 5 + "." + i % 11 + "." + i;
+    }
+    Semver tilde = Semver.create("~1.2");
+    List<Semver> matches = tilde.filter(Stream.of(versions).parallel())
+        .collect(Collectors.toList());
+    assertEquals(Semver.stream(versions).filter(tilde::matches).collect(Collectors.toList()),
+        matches);
+    for (Semver match : matches) {
+      assertTrue(match.text().startsWith("1."));
+    }
+
+    List<Semver> top = Semver.stream(versions).parallel().collect(Semver.create("<3.0.0").top(3));
+    assertEquals(Arrays.asList(Semver.create("2.10.967"), Semver.create("2.10.912"),
+        Semver.create("2.10.857")), top);
+    assertEquals("[2.10.967, 2.10.912, 2.10.857]", top.toString());
+    assertEquals(Collections.emptyList(), Semver.stream(versions).collect(
+        Semver.create(">9.0.0").top(3)));
+    assertEquals(Semver.create("1.0.0"), Semver.stream("0.9.0", "1.0.0", "2.0.0").collect(
+        Semver.create("1.x").top(5)).get(0));
+  }
+
+  @Test
+  public void internedIdentifiers() {
+    Version v1 = (Version) Semver.create("1.0.0-beta.1+build.7");
+    Version v2 = (Version) Semver.create("2.3.0-beta.1+build.7");
+    assertTrue(v1.prerelease() == v2.prerelease());
+    assertTrue(v1.buildNumber() == v2.buildNumber());
+    Version v3 = (Version) Semver.create("2.3.0-rc.1");
+    assertTrue(v1.prerelease()[1] == v3.prerelease()[1]);
+    assertTrue(v1.compareTo(v2) < 0);
+    assertTrue(v3.compareTo(v2) > 0);
+    assertEquals("beta..1", ((Version) Semver.create("1.0.0-beta..1")).getText().substring(6));
+    assertEquals(2, ((Version) Semver.create("1.0.0-beta..1")).prerelease().length);
+    assertTrue(((Version) Semver.create("1.0.0")).prerelease() == Identifier.NONE);
+  }
+
+  @Test
+  public void appendTo() throws IOException {
+    String[] expressions = {"1.2.3", "=1.2.3", ">1.2.3", ">=1.2.3", "<1.2.3", "<=1.2.3", "~1.2.3",
+        "1.2.x", "1.0.0 - 2.9999.9999", ">=1.0.2 <2.1.2",
+        "<1.0.0 || >=2.3.1 <2.4.5 || >=2.5.2 <3.0.0", "http://asdf.com/asdf.tar.gz", "*" };
+    for (String expression : expressions) {
+      Semver semver = Semver.create(expression);
+      assertEquals("[" + expression + "]",
+          semver.appendTo(new StringBuilder("[")).append(']').toString());
+      StringWriter writer = new StringWriter();
+      semver.appendTo(writer);
+      assertEquals(expression, writer.toString());
+      assertTrue(semver.text() == semver.text());
+      Semver compiled = semver.compile();
+      assertEquals(expression, compiled.appendTo(new StringBuilder()).toString());
+    }
+    assertEquals(">=1.2.3 <1.3.0 || >=2.0.0 <3.0.0",
+        Semver.create("2.x || ~1.2.3").intervals().text());
+    assertEquals("latest", Semver.LATEST.appendTo(new StringBuilder()).toString());
+  }
 }
@@ -0,0 +1,97 @@
+package com.github.jknack.semver;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+public class VersionCodecTest {
+
+  private static final String[] VERSIONS = {"0.0.0", "0.0.1", "0.1.0", "1", "1.0.0-0",
+      "1.0.0-00", "1.0.0-1", "1.0.0-9", "1.0.0-10", "1.0.0-alpha", "1.0.0-alpha.1",
+      "1.0.0-alpha.beta", "1.0.0-beta", "1.0.0-beta.2", "1.0.0-beta.11", "1.0.0-rc.1",
+      "1.0.0-rc-1", "1.0.0-RC", "1.0.0", "1.0.0+0", "1.0.0+build", "1.0.0+build.1",
+      "1.0.0+build.1.a", "1.0.0-rc.1+build.1", "1.0.2", "1.2", "1.2.0", "1.2.3-beta",
+      "1.2.3", "1.2.3+build", "1.2.255", "1.2.256", "1.255.0", "1.65535.0", "1.65536.0",
+      "2.0.0-rc.1", "2.1.1", "127.0.0", "128.0.0", "2147483647.0.0",
+      "1.0.0-99999999999999999999", "1.0.0-100000000000000000000", "1.0.0-a.b.c.d",
+      "1.0.0-a.b.c", "1.0.0-a.b.c+d" };
+
+  @Test
+  public void orderMatchesPrecedence() {
+    for (String left : VERSIONS) {
+      Semver v1 = Semver.create(left);
+      byte[] b1 = VersionCodec.encode(v1);
+      for (String right : VERSIONS) {
+        Semver v2 = Semver.create(right);
+        byte[] b2 = VersionCodec.encode(v2);
+        assertEquals(left + " vs " + right, Integer.signum(v1.compareTo(v2)),
+            Integer.signum(VersionCodec.compare(b1, b2)));
+        if (v1.compareTo(v2) == 0) {
+          assertArrayEquals(left + " vs " + right, b1, b2);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void sort() {
+    byte[][] keys = new byte[VERSIONS.length][];
+    Semver[] versions = new Semver[VERSIONS.length];
+    for (int i = 0; i < VERSIONS.length; i++) {
+      versions[i] = Semver.create(VERSIONS[i]);
+      keys[i] = VersionCodec.encode(versions[i]);
+    }
+    Arrays.sort(versions);
+    Arrays.sort(keys, VersionCodec::compare);
+    for (int i = 0; i < keys.length; i++) {
+      assertEquals(0, versions[i].compareTo(VersionCodec.decode(keys[i])));
+    }
+  }
+
+  @Test
+  public void roundTrip() {
+    for (String text : VERSIONS) {
+      Semver version = Semver.create(text);
+      byte[] bytes = VersionCodec.encode(version);
+      assertEquals(VersionCodec.encodedLength(version), bytes.length);
+      Semver decoded = VersionCodec.decode(bytes);
+      assertEquals(Semver.Type.STATIC, decoded.type());
+      assertEquals(0, version.compareTo(decoded));
+    }
+    assertEquals("1.2.0", VersionCodec.decode(VersionCodec.encode(Semver.create("1.2"))).text());
+    assertEquals("1.0.0-rc.7+b.0", VersionCodec.decode(
+        VersionCodec.encode(Semver.create("1.0.0-rc.007+b.00"))).text());
+  }
+
+  @Test
+  public void buffer() {
+    ByteBuffer buffer = ByteBuffer.allocateDirect(1024);
+    for (String text : VERSIONS) {
+      VersionCodec.encode(Semver.create(text), buffer);
+    }
+    buffer.flip();
+    for (String text : VERSIONS) {
+      assertEquals(0, Semver.create(text).compareTo(VersionCodec.decode(buffer)));
+    }
+    assertTrue(!buffer.hasRemaining());
+    assertArrayEquals(new byte[]{1, 1, 1, 2, 1, 3, 3, 0 },
+        VersionCodec.encode(Semver.create("1.2.3")));
+    assertArrayEquals(new byte[]{0, 0, 0, 2, 'a', 0, 1, 1, '1', 3, 0 },
+        VersionCodec.encode(Semver.create("0.0.0-a.01")));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void notAVersion() {
+    VersionCodec.encode(Semver.create("~1.2.3"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void trailingBytes() {
+    VersionCodec.decode(new byte[]{0, 0, 0, 3, 0, 0 });
+  }
+}
@@ -0,0 +1,82 @@
+package com.github.jknack.semver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class VersionIndexTest {
+
+  private static final String[] VERSIONS = {"1.2.3", "0.9.0", "1.3.0-beta", "2.4.4", "1.2.9",
+      "2.5.2", "1.0.0", "3.0.0", "2.3.0", "1.2", "1.2.0", "0.1.0" };
+
+  private final VersionIndex index = VersionIndex.of(VERSIONS);
+
+  @Test
+  public void sortedWithoutDuplicates() {
+    assertEquals("[0.1.0, 0.9.0, 1.0.0, 1.2, 1.2.3, 1.2.9, 1.3.0-beta, 2.3.0, 2.4.4, 2.5.2, "
+        + "3.0.0]", index.toString());
+    assertEquals(11, index.size());
+    assertEquals("1.0.0", index.get(2).text());
+  }
+
+  @Test
+  public void rank() {
+    assertEquals(0, index.rank(Semver.create("0.0.1")));
+    assertEquals(0, index.rank(Semver.create("0.1.0")));
+    assertEquals(3, index.rank(Semver.create("1.2.0")));
+    assertEquals(4, index.rank(Semver.create("1.2.1")));
+    assertEquals(11, index.rank(Semver.create("4.0.0")));
+    assertTrue(index.contains(Semver.create("1.2.0")));
+    assertFalse(index.contains(Semver.create("1.2.1")));
+  }
+
+  @Test
+  public void floorAndCeiling() {
+    assertEquals("1.2.9", index.floor(Semver.create("1.3.0-alpha")).text());
+    assertEquals("1.3.0-beta", index.floor(Semver.create("1.3.0")).text());
+    assertEquals("2.3.0", index.floor(Semver.create("2.3.0")).text());
+    assertNull(index.floor(Semver.create("0.0.1")));
+
+    assertEquals("1.3.0-beta", index.ceiling(Semver.create("1.3.0-alpha")).text());
+    assertEquals("2.3.0", index.ceiling(Semver.create("2.3.0")).text());
+    assertNull(index.ceiling(Semver.create("3.0.1")));
+  }
+
+  @Test
+  public void query() {
+    String[] expressions = {"~1.2", "~1.2.3", "1.x", "*", "<1.0.0 || >=2.3.1 <2.4.5 || >=2.5.2",
+        ">=1.0.0 <1.0.0", "1.2.3 || 2.3.0", "<=0.9.0 || 3.x", "~4.0.0",
+        "http://asdf.com/asdf.tar.gz" };
+    for (String expression : expressions) {
+      Semver semver = Semver.create(expression);
+      List<Semver> expected = new ArrayList<Semver>();
+      for (Semver version : index) {
+        if (semver.matches(version)) {
+          expected.add(version);
+        }
+      }
+      List<Semver> actual = index.query(semver);
+      assertEquals(expression, expected, new ArrayList<Semver>(actual));
+      assertEquals(expression, expected.size(), index.count(semver));
+      assertEquals(expression, expected.isEmpty() ? null : expected.get(expected.size() - 1),
+          index.max(semver));
+      assertEquals(expression, expected.isEmpty() ? null : expected.get(0), index.min(semver));
+    }
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void readOnly() {
+    index.query(Semver.ANY).remove(0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void versionsOnly() {
+    VersionIndex.of("1.0.0", "~1.2.3");
+  }
+}
@@ -0,0 +1,152 @@
+package com.github.jknack.semver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.function.Predicate;
+
+import org.junit.Test;
+
+public class VersionSetTest {
+
+  private static final String[] VERSIONS = {"1.2.3", "0.1.0", "1.0.0-beta.11", "1.0.0-beta.2",
+      "1.0.0", "1.0.0-alpha", "1.2", "1.2.0", "1.2.9", "1.3.0-beta", "2.3.0", "1.0.0+build.1",
+      "2.4.4", "3.0.0", "1.0.0-alpha", "1.2.3+build", "0.9.0", "2000000.0.0", "1.3.0" };
+
+  private static final String[] EXPRESSIONS = {"~1.2", "~1.2.3", "1.x", "*", ">=1.0.0-beta",
+      "<1.0.0 || >=2.3.1 <2.4.5 || >=2.5.2", ">=1.0.0 <1.0.0", "1.2.3 || 2.3.0", "1.0.0",
+      "<=0.9.0 || 3.x", "~4.0.0", ">1.2.3 <=2.3.0", "http://asdf.com/asdf.tar.gz",
+      ">=1.2.3+build", "<1.2.3+build", ">1.2.3-beta <=2.3.0+build", ">=2000000.0.0" };
+
+  @Test
+  public void likeTreeSet() {
+    VersionSet set = new VersionSet();
+    TreeSet<Semver> expected = new TreeSet<Semver>();
+    for (String version : VERSIONS) {
+      Semver semver = Semver.create(version);
+      assertEquals(version, expected.add(semver), set.add(semver));
+    }
+    assertEquals(expected.size(), set.size());
+    // release versions are created with three qualifiers
+    assertEquals(expected.toString().replace("1.2,", "1.2.0,"), set.toString());
+    assertEquals(expected, set);
+    assertEquals(set, VersionSet.of(VERSIONS));
+    assertEquals(expected.hashCode(), set.hashCode());
+    for (String version : VERSIONS) {
+      assertTrue(set.contains(Semver.create(version)));
+    }
+    assertTrue(set.contains(Semver.create("1.2.0")));
+    assertFalse(set.contains(Semver.create("1.2.1")));
+    assertFalse(set.contains(Semver.create("1.2.3-beta")));
+    assertFalse(set.contains(Semver.create("~1.2.3")));
+    assertFalse(set.contains("1.2.3"));
+
+    assertTrue(set.remove(Semver.create("1.2")));
+    assertTrue(set.remove(Semver.create("1.0.0-alpha")));
+    assertFalse(set.remove(Semver.create("1.2.0")));
+    assertEquals(expected.size() - 2, set.size());
+    assertFalse(set.contains(Semver.create("1.2.0")));
+    assertEquals("1.0.0-beta.2", new ArrayList<Semver>(set).get(2).text());
+
+    set.clear();
+    assertTrue(set.isEmpty());
+    assertFalse(set.iterator().hasNext());
+  }
+
+  @Test
+  public void setAlgebra() {
+    VersionSet left = VersionSet.of("1.0.0", "1.2.0", "1.3.0-beta", "2.0.0", "3.0.0+build");
+    VersionSet right = VersionSet.of("0.9.0", "1.2", "1.3.0-beta", "3.0.0", "3.0.0+build");
+    assertEquals("[0.9.0, 1.0.0, 1.2.0, 1.3.0-beta, 2.0.0, 3.0.0, 3.0.0+build]",
+        left.union(right).toString());
+    assertEquals("[1.2.0, 1.3.0-beta, 3.0.0+build]", left.intersection(right).toString());
+    assertEquals(left, left.union(new VersionSet()));
+    assertTrue(left.intersection(new VersionSet()).isEmpty());
+  }
+
+  @Test
+  public void filter() {
+    VersionSet set = VersionSet.of(VERSIONS);
+    for (String expression : EXPRESSIONS) {
+      Semver semver = Semver.create(expression);
+      List<Semver> expected = new ArrayList<Semver>();
+      for (Semver version : set) {
+        if (semver.matches(version)) {
+          expected.add(version);
+        }
+      }
+      assertEquals(expression, expected.toString(), set.filter(semver).toString());
+    }
+  }
+
+  @Test
+  public void iteratorRemove() {
+    TreeSet<Semver> expected = new TreeSet<Semver>(VersionSet.of(VERSIONS));
+    VersionSet set = VersionSet.of(VERSIONS);
+    Iterator<Semver> it = set.iterator();
+    Iterator<Semver> expectedIt = expected.iterator();
+    boolean remove = true;
+    while (it.hasNext()) {
+      assertEquals(expectedIt.next(), it.next());
+      if (remove) {
+        it.remove();
+        expectedIt.remove();
+      }
+      remove = !remove;
+    }
+    assertFalse(expectedIt.hasNext());
+    assertEquals(expected.toString(), set.toString());
+
+    int size = VersionSet.of(VERSIONS).size();
+    set = VersionSet.of(VERSIONS);
+    assertTrue(set.removeAll(VersionSet.of("1.2.0", "1.0.0-alpha", "5.0.0")));
+    assertFalse(set.contains(Semver.create("1.2")));
+    assertFalse(set.contains(Semver.create("1.0.0-alpha")));
+    assertEquals(size - 2, set.size());
+
+    set = VersionSet.of(VERSIONS);
+    assertTrue(set.retainAll(VersionSet.of("1.2", "1.3.0-beta", "5.0.0")));
+    assertEquals("[1.2.0, 1.3.0-beta]", set.toString());
+
+    set = VersionSet.of(VERSIONS);
+    assertTrue(set.removeIf(new Predicate<Semver>() {
+      @Override
+      public boolean test(final Semver version) {
+        return ((Version) version).getMajor() != 1;
+      }
+    }));
+    assertEquals(set.filter(Semver.create("1.x || >=1.0.0-alpha <2.0.0")), set);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void removeTwice() {
+    Iterator<Semver> it = VersionSet.of(VERSIONS).iterator();
+    it.next();
+    it.remove();
+    it.remove();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void notAVersion() {
+    new VersionSet().add(Semver.create("~1.2.3"));
+  }
+
+  @Test
+  public void growth() {
+    VersionSet set = new VersionSet();
+    List<Semver> versions = new ArrayList<Semver>();
+    for (int i = 100; i > 0; i--) {
+      versions.add(Semver.create("1." + i % 7 + "." + i));
+    }
+    set.addAll(versions);
+    Semver[] sorted = versions.toArray(new Semver[versions.size()]);
+    Arrays.sort(sorted);
+    assertEquals(Arrays.asList(sorted).toString(), set.toString());
+  }
+}
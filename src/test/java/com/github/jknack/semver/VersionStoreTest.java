@@ -0,0 +1,102 @@
+package com.github.jknack.semver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+public class VersionStoreTest {
+
+  private static final String[] VERSIONS = {"1.2.3", "0.1.0", "1.0.0-beta.11", "1.0.0-beta.2",
+      "1.0.0", "1.0.0-alpha", "1.2", "1.2.0", "1.2.9", "1.3.0-beta", "2.3.0", "1.0.0+build.1",
+      "1.0.0-rc.1+build.1", "2.4.4", "3.0.0", "1.0.0-alpha", "1.2.3+build", "0.9.0" };
+
+  private static final String[] EXPRESSIONS = {"~1.2", "~1.2.3", "1.x", "*", ">=1.0.0-beta",
+      "<1.0.0 || >=2.3.1 <2.4.5 || >=2.5.2", ">=1.0.0 <1.0.0", "1.2.3 || 2.3.0", "1.0.0",
+      "<=0.9.0 || 3.x", "~4.0.0", "http://asdf.com/asdf.tar.gz" };
+
+  private VersionStore store(final int capacity) {
+    VersionStore store = new VersionStore(capacity);
+    for (String version : VERSIONS) {
+      store.add(Semver.create(version));
+    }
+    return store;
+  }
+
+  @Test
+  public void get() {
+    VersionStore store = store(2);
+    assertEquals(VERSIONS.length, store.size());
+    assertEquals(8, store.suffixes());
+    assertEquals("1.0.0-rc.1+build.1", store.get(12).text());
+    assertEquals("1.2.0", store.get(6).text());
+    for (int slot = 0; slot < store.size(); slot++) {
+      assertEquals(VERSIONS[slot], 0, Semver.create(VERSIONS[slot]).compareTo(store.get(slot)));
+    }
+  }
+
+  @Test
+  public void sort() {
+    VersionStore store = store(4);
+    Semver[] expected = new Semver[VERSIONS.length];
+    for (int i = 0; i < expected.length; i++) {
+      expected[i] = Semver.create(VERSIONS[i]);
+    }
+    Arrays.sort(expected);
+    int[] slots = store.sort();
+    for (int i = 0; i < slots.length; i++) {
+      assertEquals(0, expected[i].compareTo(store.get(slots[i])));
+      if (i > 0) {
+        assertTrue(store.compare(slots[i - 1], slots[i]) <= 0);
+        // stable
+        assertTrue(store.compare(slots[i - 1], slots[i]) < 0 || slots[i - 1] < slots[i]);
+      }
+    }
+  }
+
+  @Test
+  public void filter() {
+    VersionStore store = store(1024);
+    for (String expression : EXPRESSIONS) {
+      Semver semver = Semver.create(expression);
+      List<Integer> expected = new ArrayList<Integer>();
+      Semver max = null;
+      for (int slot = 0; slot < VERSIONS.length; slot++) {
+        Semver version = Semver.create(VERSIONS[slot]);
+        boolean matches = semver.matches(version);
+        assertEquals(expression + " " + version, matches, store.matches(slot, semver));
+        if (matches) {
+          expected.add(slot);
+          max = max == null || version.compareTo(max) > 0 ? version : max;
+        }
+      }
+      List<Integer> actual = new ArrayList<Integer>();
+      for (int slot : store.filter(semver)) {
+        actual.add(slot);
+      }
+      assertEquals(expression, expected, actual);
+      int slot = store.max(semver);
+      if (max == null) {
+        assertEquals(-1, slot);
+      } else {
+        assertEquals(expression, 0, max.compareTo(store.get(slot)));
+      }
+    }
+    assertFalse(store.matches(0, Semver.create("~1.3")));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void notAVersion() {
+    new VersionStore().add(Semver.create("~1.2.3"));
+  }
+
+  @Test(expected = IndexOutOfBoundsException.class)
+  public void noSuchSlot() {
+    store(1).get(VERSIONS.length);
+  }
+}
@@ -0,0 +1,163 @@
+package com.github.jknack.semver.resolver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.github.jknack.semver.Semver;
+
+public class ResolverTest {
+
+  /**
+   * An in-memory registry.
+   */
+  private static class Registry implements Provider {
+
+    private final Map<String, Map<Semver, Map<String, Semver>>> packages =
+        new HashMap<String, Map<Semver, Map<String, Semver>>>();
+
+    private int requests;
+
+    public Registry add(final String name, final String version, final String... dependencies) {
+      Map<Semver, Map<String, Semver>> versions = packages.get(name);
+      if (versions == null) {
+        versions = new LinkedHashMap<Semver, Map<String, Semver>>();
+        packages.put(name, versions);
+      }
+      Map<String, Semver> deps = new LinkedHashMap<String, Semver>();
+      for (int i = 0; i < dependencies.length; i += 2) {
+        deps.put(dependencies[i], Semver.create(dependencies[i + 1]));
+      }
+      versions.put(Semver.create(version), deps);
+      return this;
+    }
+
+    @Override
+    public List<? extends Semver> versions(final String name) {
+      requests++;
+      Map<Semver, Map<String, Semver>> versions = packages.get(name);
+      return versions == null ? Collections.<Semver> emptyList()
+          : new ArrayList<Semver>(versions.keySet());
+    }
+
+    @Override
+    public Map<String, ? extends Semver> dependencies(final String name, final Semver version) {
+      requests++;
+      return packages.get(name).get(version);
+    }
+  }
+
+  @Test
+  public void noConflicts() {
+    Registry registry = new Registry()
+        .add("root", "1.0.0", "foo", ">=1.0.0 <2.0.0")
+        .add("foo", "1.0.0", "bar", ">=1.0.0 <2.0.0")
+        .add("bar", "1.0.0")
+        .add("bar", "2.0.0");
+    Solution solution = new Resolver(registry).solve("root", Semver.create("1.0.0"));
+    assertEquals("{root=1.0.0, foo=1.0.0, bar=1.0.0}", solution.toString());
+  }
+
+  @Test
+  public void avoidConflictDuringDecisionMaking() {
+    Registry registry = new Registry()
+        .add("root", "1.0.0", "foo", ">=1.0.0 <2.0.0", "bar", ">=1.0.0 <2.0.0")
+        .add("foo", "1.1.0", "bar", ">=2.0.0 <3.0.0")
+        .add("foo", "1.0.0")
+        .add("bar", "1.0.0")
+        .add("bar", "1.1.0")
+        .add("bar", "2.0.0");
+    Solution solution = new Resolver(registry).solve("root", Semver.create("1.0.0"));
+    assertEquals(Semver.create("1.0.0"), solution.get("foo"));
+    assertEquals(Semver.create("1.1.0"), solution.get("bar"));
+  }
+
+  @Test
+  public void conflictResolution() {
+    Registry registry = new Registry()
+        .add("root", "1.0.0", "foo", ">=1.0.0")
+        .add("foo", "2.0.0", "bar", ">=1.0.0 <2.0.0")
+        .add("foo", "1.0.0")
+        .add("bar", "1.0.0", "foo", ">=1.0.0 <2.0.0");
+    Solution solution = new Resolver(registry).solve("root", Semver.create("1.0.0"));
+    assertEquals(Semver.create("1.0.0"), solution.get("foo"));
+    assertNull(solution.get("bar"));
+  }
+
+  @Test
+  public void conflictResolutionWithPartialSatisfier() {
+    Registry registry = new Registry()
+        .add("root", "1.0.0", "foo", "~1.0", "target", "2.x")
+        .add("foo", "1.1.0", "left", "1.x", "right", "1.x")
+        .add("foo", "1.0.0")
+        .add("left", "1.0.0", "shared", ">=1.0.0")
+        .add("right", "1.0.0", "shared", "<2.0.0")
+        .add("shared", "2.0.0")
+        .add("shared", "1.0.0", "target", "1.x")
+        .add("target", "2.0.0")
+        .add("target", "1.0.0");
+    Solution solution = new Resolver(registry).solve("root", Semver.create("1.0.0"));
+    assertEquals(Semver.create("1.0.0"), solution.get("foo"));
+    assertEquals(Semver.create("2.0.0"), solution.get("target"));
+    assertNull(solution.get("left"));
+  }
+
+  @Test
+  public void noSolution() {
+    Registry registry = new Registry()
+        .add("root", "1.0.0", "foo", "1.x", "baz", "1.x")
+        .add("foo", "1.0.0", "bar", "2.x")
+        .add("bar", "2.0.0", "baz", "3.x")
+        .add("baz", "1.0.0")
+        .add("baz", "3.0.0");
+    try {
+      new Resolver(registry).solve("root", Semver.create("1.0.0"));
+      fail();
+    } catch (ResolutionException ex) {
+      assertTrue(ex.getIncompatibility().isFailure("root"));
+      String message = ex.getMessage();
+      assertTrue(message, message.contains("foo 1.0.0 depends on bar 2.x"));
+      assertTrue(message, message.endsWith("So, version solving failed."));
+    }
+  }
+
+  @Test
+  public void unknownPackage() {
+    Registry registry = new Registry().add("root", "1.0.0", "missing", ">=1.0.0");
+    try {
+      new Resolver(registry).solve("root", Semver.create("1.0.0"));
+      fail();
+    } catch (ResolutionException ex) {
+      assertTrue(ex.getMessage(), ex.getMessage().contains("no versions of missing match >=1.0.0"));
+    }
+  }
+
+  @Test
+  public void backjumpOverUnrelatedDecisions() {
+    // a.2 needs c.2 which doesn't exist, b has many versions: no exponential search
+    Registry registry = new Registry()
+        .add("root", "1.0.0", "a", "*", "b", "*")
+        .add("a", "1.0.0", "c", "1.x")
+        .add("a", "2.0.0", "c", "2.x")
+        .add("c", "1.0.0");
+    for (int i = 0; i < 50; i++) {
+      registry.add("b", i + ".0.0");
+    }
+    Solution solution = new Resolver(registry).solve("root", Semver.create("1.0.0"));
+    assertEquals(Semver.create("1.0.0"), solution.get("a"));
+    assertEquals(Semver.create("49.0.0"), solution.get("b"));
+    assertEquals(Semver.create("1.0.0"), solution.get("c"));
+    assertTrue(solution.decisions() < 10);
+    assertTrue(registry.requests < 12);
+  }
+}